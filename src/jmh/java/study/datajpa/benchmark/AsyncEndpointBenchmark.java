@@ -0,0 +1,118 @@
+package study.datajpa.benchmark;
+
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DatajpaApplication;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /v1/members 부하 테스트(요청 스레드 실행 vs RepositoryExecutor 실행)
+ *  - SQL마다 latencyMs 만큼 지연시켜 느린 DB를 흉내낸다.
+ *  - Tomcat 스레드(20)보다 많은 클라이언트(64)가 동시에 요청하고, 초당 처리 요청 수와 실패(503) 수를 비교한다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AsyncEndpointBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ServerState {
+
+        @Param({"false", "true"})
+        public boolean async;
+
+        @Param({"20"})
+        public long latencyMs;
+
+        ConfigurableApplicationContext context;
+        HttpClient client;
+        URI uri;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = new SpringApplicationBuilder(DatajpaApplication.class)
+                    .initializers(ctx -> ctx.getBeanFactory().registerSingleton("latencyListener", new LatencyListener(latencyMs)))
+                    .run(BenchmarkApplication.args(
+                            "server.port=0",
+                            "server.tomcat.threads.max=20",
+                            "spring.datasource.hikari.maximum-pool-size=10",
+                            "datajpa.sql.budget.enabled=false",
+                            "datajpa.async.enabled=" + async));
+            BenchmarkApplication.seed(context, 10_000);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            uri = URI.create("http://localhost:" + port + "/v1/members?page=10&size=20&count=CACHED");
+            client = HttpClient.newHttpClient();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    @Threads(64)
+    public int listMembers(ServerState state, ResponseCounters counters) throws IOException, InterruptedException {
+        HttpResponse<Void> response = state.client.send(HttpRequest.newBuilder(state.uri).GET().build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() == 200) {
+            counters.ok++;
+        } else {
+            counters.failed++;
+        }
+        return response.statusCode();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class ResponseCounters {
+        public long ok;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            ok = 0;
+            failed = 0;
+        }
+    }
+
+    /**
+     * SQL 실행 전에 지연(커넥션을 잡은 채로 대기)
+     */
+    static class LatencyListener extends SimpleJdbcEventListener {
+        private final long latencyMs;
+
+        LatencyListener(long latencyMs) {
+            this.latencyMs = latencyMs;
+        }
+
+        @Override
+        public void onBeforeAnyExecute(StatementInformation statementInformation) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
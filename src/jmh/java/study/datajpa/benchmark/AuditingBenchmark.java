@@ -0,0 +1,78 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.MemberJpaRepository;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 감사(audit) 방식 비교(datajpa.audit.mode)
+ *  - legacy: 엔티티마다 UUID.randomUUID()(SecureRandom), LocalDateTime.now()
+ *  - fast: 트랜잭션 단위 작성자, flush 단위 시각 스냅샷
+ *  - 여러 스레드에서 동시에 저장할 때 SecureRandom 경합 차이가 커진다.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AuditingBenchmark {
+
+    private static final int MEMBERS_PER_CALL = 1_000;
+
+    @State(Scope.Benchmark)
+    public static class AuditState {
+
+        @Param({"legacy", "fast"})
+        public String mode;
+
+        ConfigurableApplicationContext context;
+        MemberJpaRepository memberJpaRepository;
+        JdbcTemplate jdbc;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkApplication.start("datajpa.audit.mode=" + mode);
+            memberJpaRepository = context.getBean(MemberJpaRepository.class);
+            jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        }
+
+        @TearDown(Level.Iteration)
+        public void deleteMembers() {
+            jdbc.execute("delete from member");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public long saveAll(AuditState state) {
+        return save(state);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long saveAllConcurrently(AuditState state) {
+        return save(state);
+    }
+
+    private static long save(AuditState state) {
+        return state.memberJpaRepository.saveAllBatched(IntStream.range(0, MEMBERS_PER_CALL)
+                .mapToObj(i -> new MemberEntity("member" + i, i % 100)));
+    }
+}
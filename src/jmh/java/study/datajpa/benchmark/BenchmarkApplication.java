@@ -0,0 +1,106 @@
+package study.datajpa.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.DatajpaApplication;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 벤치마크용 애플리케이션 기동과 데이터 적재
+ *  - application.yml의 TCP H2 대신 in-memory H2를 사용하고 SQL 로그는 끈다.
+ *  - Hibernate Statistics를 켜서 실행된 SQL 수를 셀 수 있도록 한다.
+ */
+public final class BenchmarkApplication {
+
+    private static final int SEED_BATCH = 10_000;
+    private static final int ALLOCATION_SIZE = 50;
+
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(DatajpaApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args(properties));
+    }
+
+    /**
+     * 벤치마크 공통 설정 + properties를 커맨드라인 인자 형태로 반환(웹 서버 기동 등 직접 띄울 때 사용)
+     */
+    public static String[] args(String... properties) {
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--spring.datasource.hikari.jdbc-url=jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+                "--spring.datasource.hikari.username=sa",
+                "--spring.datasource.hikari.password=",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--decorator.datasource.p6spy.enable-logging=false",
+                "--logging.level.root=warn",
+                "--logging.level.org.hibernate.SQL=warn"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return args.toArray(new String[0]);
+    }
+
+    /**
+     * 팀 1개당 회원 100명, 회원 이름은 member{id}, 나이는 id % 100
+     */
+    public static void seed(ConfigurableApplicationContext context, int members) {
+        seed(context, members, 100);
+    }
+
+    /**
+     * 팀 1개당 회원 membersPerTeam명(회원 id % 팀 수로 고르게 나눈다)
+     */
+    public static void seed(ConfigurableApplicationContext context, int members, int membersPerTeam) {
+        JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        int teams = Math.max(1, members / membersPerTeam);
+        insert(jdbc, "insert into team (team_id, name, version) values (?, ?, 0)", teams, (ps, id) -> {
+            ps.setLong(1, id);
+            ps.setString(2, "team" + id);
+        });
+        insert(jdbc, "insert into member (member_id, username, age, team_id, version) values (?, ?, ?, ?, 0)", members, (ps, id) -> {
+            ps.setLong(1, id);
+            ps.setString(2, "member" + id);
+            ps.setInt(3, (int) (id % 100));
+            ps.setLong(4, id % teams + 1);
+        });
+        jdbc.update("update team t set member_count = (select count(*) from member m where m.team_id = t.team_id)");
+        // pooled 블록은 시퀀스 값 v에 대해 [v - 49, v]를 쓰므로 적재한 id와 겹치지 않게 한 블록 뒤에서 시작
+        jdbc.execute("alter sequence team_seq restart with " + (teams + ALLOCATION_SIZE + 1));
+        jdbc.execute("alter sequence member_seq restart with " + (members + ALLOCATION_SIZE + 1));
+    }
+
+    private static void insert(JdbcTemplate jdbc, String sql, int rows, RowSetter setter) {
+        for (int from = 0; from < rows; from += SEED_BATCH) {
+            int start = from;
+            int size = Math.min(SEED_BATCH, rows - from);
+            jdbc.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    setter.set(ps, start + i + 1L);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return size;
+                }
+            });
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowSetter {
+        void set(PreparedStatement ps, long id) throws SQLException;
+    }
+}
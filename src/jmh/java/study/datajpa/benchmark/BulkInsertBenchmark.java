@@ -0,0 +1,92 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.entity.TeamEntity;
+import study.datajpa.repository.MemberJpaRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * 회원 rows건 저장 비용(초당 저장 건수 = rows / 점수)
+ *  - perRow: allocationSize 1 시퀀스 + 행마다 persist/flush/clear(insert마다 시퀀스 조회와 insert 두 번 왕복)
+ *  - batched: MemberJpaRepository.saveAllBatched(pooled 시퀀스 + JDBC batch insert)
+ *  - 두 방식 모두 영속성 컨텍스트 크기를 일정하게 유지하므로 dirty checking 비용은 비교에서 빠진다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BulkInsertBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class InsertState {
+
+        @Param({"1000", "10000"})
+        public int rows;
+
+        ConfigurableApplicationContext context;
+        MemberJpaRepository memberJpaRepository;
+        EntityManager em;
+        TransactionTemplate transactionTemplate;
+        JdbcTemplate jdbc;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkApplication.start(
+                    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                    "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+            memberJpaRepository = context.getBean(MemberJpaRepository.class);
+            em = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+            transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+        }
+
+        @TearDown(Level.Iteration)
+        public void truncate() {
+            jdbc.execute("delete from member");
+            jdbc.execute("delete from team");
+            jdbc.execute("delete from single_row_member_entity");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public long perRow(InsertState state) {
+        return state.transactionTemplate.execute(status -> {
+            for (int i = 0; i < state.rows; i++) {
+                state.em.persist(new SingleRowMemberEntity("single" + i, i % 100));
+                state.em.flush();
+                state.em.clear();
+            }
+            return (long) state.rows;
+        });
+    }
+
+    @Benchmark
+    public long batched(InsertState state) {
+        TeamEntity team = new TeamEntity("team");
+        return state.memberJpaRepository.saveAllBatched(
+                IntStream.range(0, state.rows).mapToObj(i -> new MemberEntity("batch" + i, i % 100, team)));
+    }
+}
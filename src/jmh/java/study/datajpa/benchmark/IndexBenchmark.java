@@ -0,0 +1,103 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 100만 명에서 username/age 파생 쿼리의 인덱스 유무 비교
+ *  - indexes=false면 기동 후 MemberEntity의 @Index를 drop 한다.
+ *  - 쿼리 캐시, 2차 캐시는 끈다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IndexBenchmark {
+
+    private static final int MEMBERS = 1_000_000;
+
+    @State(Scope.Benchmark)
+    public static class IndexState {
+
+        @Param({"true", "false"})
+        public boolean indexes;
+
+        ConfigurableApplicationContext context;
+        MemberRepository memberRepository;
+        MemberJpaRepository memberJpaRepository;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkApplication.start(
+                    "datajpa.index-advisor.enabled=false",
+                    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                    "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+            BenchmarkApplication.seed(context, MEMBERS);
+            JdbcTemplate jdbc = new JdbcTemplate(context.getBean(DataSource.class));
+            if (!indexes) {
+                jdbc.execute("drop index IDX_MEMBER_USERNAME_AGE");
+                jdbc.execute("drop index IDX_MEMBER_AGE_USERNAME");
+            }
+            jdbc.execute("analyze");
+            memberRepository = context.getBean(MemberRepository.class);
+            memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+
+        String randomUsername() {
+            return "member" + ThreadLocalRandom.current().nextInt(1, MEMBERS + 1);
+        }
+    }
+
+    @Benchmark
+    public List<MemberEntity> findByUsername(IndexState state) {
+        return state.memberRepository.findByUsername(state.randomUsername());
+    }
+
+    @Benchmark
+    public List<MemberEntity> findByUsernameAndAgeGreaterThan(IndexState state) {
+        return state.memberRepository.findByUsernameAndAgeGreaterThan(state.randomUsername(), 50);
+    }
+
+    @Benchmark
+    public List<MemberEntity> findTop3ByAge(IndexState state) {
+        return state.memberRepository.findTop3ByAge(ThreadLocalRandom.current().nextInt(100));
+    }
+
+    @Benchmark
+    public Slice<MemberEntity> findSliceByAgeSortedByUsername(IndexState state) {
+        return state.memberRepository.findSliceByAge(ThreadLocalRandom.current().nextInt(100),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "username")));
+    }
+
+    /**
+     * where age = ? order by username desc
+     */
+    @Benchmark
+    public List<MemberEntity> findByPage(IndexState state) {
+        return state.memberJpaRepository.findByPage(ThreadLocalRandom.current().nextInt(100), 0, 10);
+    }
+}
@@ -0,0 +1,78 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.lock.LockingMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 비관적 락 vs 낙관적 락(재시도)으로 hot 회원의 나이를 1씩 올리는 비용(8 스레드, SampleTime -> 처리량과 p99)
+ *  - hot: 갱신 대상 회원 수(1이면 모든 스레드가 한 행을 두고 경합)
+ *  - 낙관적 락은 재시도를 모두 실패하면 false를 반환한다.(실패 비율은 OptimisticRetryTemplate.getStats)
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(8)
+public class LockingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class LockingState {
+
+        @Param({"PESSIMISTIC", "OPTIMISTIC"})
+        public LockingMode mode;
+
+        @Param({"1", "8", "64"})
+        public int hot;
+
+        ConfigurableApplicationContext context;
+        MemberRepository memberRepository;
+        List<String> usernames;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkApplication.start(
+                    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                    "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+            memberRepository = context.getBean(MemberRepository.class);
+            usernames = new ArrayList<>(hot);
+            List<MemberEntity> members = new ArrayList<>(hot);
+            for (int i = 0; i < hot; i++) {
+                usernames.add("hot" + i);
+                members.add(new MemberEntity("hot" + i, 0));
+            }
+            memberRepository.saveAll(members);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public boolean addAge(LockingState state) {
+        String username = state.usernames.get(ThreadLocalRandom.current().nextInt(state.hot));
+        try {
+            return state.memberRepository.addAgeByUsername(username, 1, state.mode) > 0;
+        } catch (OptimisticLockingFailureException e) {
+            return false;
+        }
+    }
+}
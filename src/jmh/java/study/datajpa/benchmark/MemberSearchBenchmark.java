@@ -0,0 +1,87 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.keyset.KeysetSlice;
+import study.datajpa.repository.specification.MemberSpec;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 100만 명에서 /v1/members/search 조건 조합별 응답 시간 분포(SampleTime -> p99)
+ *  - 2차 캐시는 끄고 한 페이지 20건을 조회한다.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemberSearchBenchmark {
+
+    private static final int MEMBERS = 1_000_000;
+    private static final Pageable PAGE = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "age"));
+
+    @State(Scope.Benchmark)
+    public static class SearchState {
+
+        ConfigurableApplicationContext context;
+        MemberRepository memberRepository;
+        String deepCursor;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkApplication.start(
+                    "datajpa.index-advisor.enabled=false",
+                    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false");
+            BenchmarkApplication.seed(context, MEMBERS);
+            memberRepository = context.getBean(MemberRepository.class);
+            // 50페이지 뒤의 커서
+            KeysetSlice<MemberEntity> slice = memberRepository.searchByKeyset(List.of(MemberSpec.ageLoe(50)), null, PAGE);
+            for (int i = 0; i < 50; i++) {
+                slice = memberRepository.searchByKeyset(List.of(MemberSpec.ageLoe(50)), slice.getNextCursor(), PAGE);
+            }
+            deepCursor = slice.getNextCursor();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    /**
+     * username 접두어(인덱스 범위 스캔) + 나이 범위
+     */
+    @Benchmark
+    public KeysetSlice<MemberEntity> prefixAndAgeRange(SearchState state) {
+        String prefix = "member" + ThreadLocalRandom.current().nextInt(1, 1_000);
+        return state.memberRepository.searchByKeyset(List.of(MemberSpec.usernameStartsWith(prefix),
+                MemberSpec.ageGoe(20), MemberSpec.ageLoe(60)), null, PAGE);
+    }
+
+    @Benchmark
+    public KeysetSlice<MemberEntity> teamName(SearchState state) {
+        String team = "team" + ThreadLocalRandom.current().nextInt(1, MEMBERS / 100 + 1);
+        return state.memberRepository.searchByKeyset(List.of(MemberSpec.teamName(team)), null, PAGE);
+    }
+
+    /**
+     * 나이 범위 + 50페이지 뒤의 커서(offset 없이 커서 조건으로 건너뛴다)
+     */
+    @Benchmark
+    public KeysetSlice<MemberEntity> ageRangeDeepPage(SearchState state) {
+        return state.memberRepository.searchByKeyset(List.of(MemberSpec.ageLoe(50)), state.deepCursor, PAGE);
+    }
+}
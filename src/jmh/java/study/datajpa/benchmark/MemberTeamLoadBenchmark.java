@@ -0,0 +1,44 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import study.datajpa.entity.MemberEntity;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 + 팀 조회 방식 비교(MemberRepository의 EntityGraph 탐색방법 1~5)
+ *  - 1~3은 전체 회원, 4~5는 이름으로 단건 조회
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MemberTeamLoadBenchmark {
+
+    @Benchmark
+    public List<MemberEntity> fetchJoin(RepositoryState state, SqlCounters counters) {
+        return state.measure(counters, () -> state.memberRepository.findMemberFetchJoin());
+    }
+
+    @Benchmark
+    public List<MemberEntity> overriddenFindAll(RepositoryState state, SqlCounters counters) {
+        return state.measure(counters, () -> state.memberRepository.findAll());
+    }
+
+    @Benchmark
+    public List<MemberEntity> jpqlEntityGraph(RepositoryState state, SqlCounters counters) {
+        return state.measure(counters, () -> state.memberRepository.findMemberEntityGraph());
+    }
+
+    @Benchmark
+    public List<MemberEntity> queryMethodEntityGraph(RepositoryState state, SqlCounters counters) {
+        return state.measure(counters, () -> state.memberRepository.findEntityGraphByUsername(state.username));
+    }
+
+    @Benchmark
+    public List<MemberEntity> namedEntityGraph(RepositoryState state, SqlCounters counters) {
+        return state.measure(counters, () -> state.memberRepository.findNamedEntityGraphByUsername(state.username));
+    }
+}
@@ -0,0 +1,94 @@
+package study.datajpa.benchmark;
+
+import org.hibernate.Hibernate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.entity.TeamEntity;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원이 많은 팀 사이에서 회원 한명의 팀을 바꾸는 비용(팀 2개, 팀당 회원 teamSize명)
+ *  - loaded=false: 팀 엔티티만 조회하고 members는 초기화하지 않는다.(팀 크기와 관계없이 일정해야 한다)
+ *  - loaded=true: 두 팀의 members를 먼저 초기화한다.(컬렉션 전체를 읽던 이전 changeTeam의 비용)
+ *  - memberCount는 컬렉션 없이 유지되는 회원 수를 읽는 비용이다.(loaded와 무관)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MembershipBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class MembershipState {
+
+        @Param({"1000", "10000", "100000"})
+        public int teamSize;
+
+        @Param({"false", "true"})
+        public boolean loaded;
+
+        ConfigurableApplicationContext context;
+        MemberRepository memberRepository;
+        TeamRepository teamRepository;
+        TransactionTemplate transactionTemplate;
+        long invocations;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkApplication.start(
+                    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                    "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+            BenchmarkApplication.seed(context, teamSize * 2, teamSize);
+            memberRepository = context.getBean(MemberRepository.class);
+            teamRepository = context.getBean(TeamRepository.class);
+            transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+
+        Long nextMemberId() {
+            return invocations++ % (teamSize * 2L) + 1;
+        }
+    }
+
+    /**
+     * 회원을 다른 팀으로 옮기고 커밋(회원 update + 팀 회원 수 갱신)
+     */
+    @Benchmark
+    public long changeTeam(MembershipState state) {
+        Long memberId = state.nextMemberId();
+        return state.transactionTemplate.execute(status -> {
+            MemberEntity member = state.memberRepository.findById(memberId).orElseThrow();
+            TeamEntity previous = state.teamRepository.findById(member.getTeam().getId()).orElseThrow();
+            TeamEntity next = state.teamRepository.findById(previous.getId() % 2 + 1).orElseThrow();
+            if (state.loaded) {
+                Hibernate.initialize(previous.getMembers());
+                Hibernate.initialize(next.getMembers());
+            }
+            member.changeTeam(next);
+            return next.getId();
+        });
+    }
+
+    @Benchmark
+    public long memberCount(MembershipState state) {
+        return state.transactionTemplate.execute(status ->
+                state.teamRepository.findById(1L).orElseThrow().getMemberCount());
+    }
+}
@@ -0,0 +1,99 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 트랜잭션 하나에서 나이별로 회원 전체를 조회할 때 영속성 컨텍스트 감시 모드별 비용
+ *  - off/warn은 모든 엔티티가 끝까지 관리되어 커밋 시 flush(dirty checking)가 엔티티 수에 비례한다.
+ *  - flush_clear는 max-entities(2,000) 단위로 flush/clear 한다.
+ *  - read_only는 한도 이후 조회한 엔티티의 스냅샷을 만들지 않으므로 update 벤치마크에서는 그 이후 변경이 반영되지 않는다.(읽기 전용 비교용)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PersistenceContextBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class GovernorState {
+
+        @Param({"off", "warn", "flush_clear", "read_only"})
+        public String mode;
+
+        @Param({"10000", "100000"})
+        public int members;
+
+        ConfigurableApplicationContext context;
+        MemberRepository memberRepository;
+        TransactionTemplate transactionTemplate;
+        long invocations;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            boolean enabled = !"off".equals(mode);
+            context = BenchmarkApplication.start(
+                    "datajpa.persistence-context.governor.enabled=" + enabled,
+                    "datajpa.persistence-context.governor.mode=" + (enabled ? mode : "warn"),
+                    "datajpa.persistence-context.governor.max-entities=2000",
+                    "datajpa.persistence-context.governor.check-interval=500",
+                    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                    "spring.jpa.properties.hibernate.cache.use_query_cache=false");
+            BenchmarkApplication.seed(context, members);
+            memberRepository = context.getBean(MemberRepository.class);
+            transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    /**
+     * 조회만 하고 커밋(flush 시 변경 없는 dirty checking 비용)
+     */
+    @Benchmark
+    public long readAll(GovernorState state) {
+        return state.transactionTemplate.execute(status -> {
+            long rows = 0;
+            for (int age = 0; age < 100; age++) {
+                rows += state.memberRepository.findPageByAge(age).size();
+            }
+            return rows;
+        });
+    }
+
+    /**
+     * 조회한 회원을 모두 수정하고 커밋
+     *  - 반복마다 나이를 0~99 -> 1~100 -> 0~99 로 번갈아 옮긴다.(옮긴 나이는 이미 처리한 나이라 다시 조회되지 않는다)
+     */
+    @Benchmark
+    public long updateAll(GovernorState state) {
+        boolean up = state.invocations++ % 2 == 0;
+        return state.transactionTemplate.execute(status -> {
+            long rows = 0;
+            for (int i = 0; i < 100; i++) {
+                int age = up ? 99 - i : i + 1;
+                for (MemberEntity member : state.memberRepository.findPageByAge(age)) {
+                    member.addAge(up ? 1 : -1);
+                    rows++;
+                }
+            }
+            return rows;
+        });
+    }
+}
@@ -0,0 +1,75 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.count.CountMode;
+import study.datajpa.repository.projection.NestedClosedProjections;
+import study.datajpa.repository.projection.UsernameOnly;
+import study.datajpa.repository.projection.UsernameOnlyDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Projection 방식 비교(기준: 엔티티 조회)
+ *  - 행당 할당량은 gc 프로파일러의 gc.alloc.rate.norm으로 비교한다.
+ *  - dtoDirect, dtoDirectPage는 JDBC 결과에서 바로 DTO 생성(Hibernate Statistics에 잡히지 않아 sqlStatements는 0)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ProjectionBenchmark {
+
+    private static final Pageable PAGE = PageRequest.of(10, 100, Sort.by("username"));
+
+    @Benchmark
+    public List<MemberEntity> entity(RepositoryState state, SqlCounters counters) {
+        return state.measure(counters, () -> state.memberRepository.findByUsername(state.username));
+    }
+
+    @Benchmark
+    public List<UsernameOnly> interfaceProjection(RepositoryState state, SqlCounters counters) {
+        return state.measure(counters, () -> state.memberRepository.findProjectionsByUsername(state.username));
+    }
+
+    @Benchmark
+    public List<UsernameOnlyDto> dtoProjection(RepositoryState state, SqlCounters counters) {
+        return state.measure(counters, () -> state.memberRepository.findProjectionsDtoByUsername(state.username));
+    }
+
+    @Benchmark
+    public List<UsernameOnlyDto> dtoDirect(RepositoryState state, SqlCounters counters) {
+        return state.measure(counters, () -> state.memberRepository.findUsernameDtoByUsername(state.username));
+    }
+
+    /**
+     * MemberController.list 이전 방식(엔티티 페이지 -> MemberDto 변환)
+     */
+    @Benchmark
+    public Page<MemberDto> entityPageToDto(RepositoryState state, SqlCounters counters) {
+        return state.measure(counters, () -> state.memberRepository.findAll(PAGE, CountMode.CACHED)
+                .map(e -> new MemberDto(e.getId(), e.getUsername())));
+    }
+
+    @Benchmark
+    public Page<MemberDto> dtoDirectPage(RepositoryState state, SqlCounters counters) {
+        return state.measure(counters, () -> state.memberRepository.findDtoPage(PAGE, CountMode.CACHED));
+    }
+
+    @Benchmark
+    public List<UsernameOnly> dynamicProjection(RepositoryState state, SqlCounters counters) {
+        return state.measure(counters, () -> state.memberRepository.findProjectionTypeByUsername(state.username, UsernameOnly.class));
+    }
+
+    @Benchmark
+    public List<NestedClosedProjections> nestedProjection(RepositoryState state, SqlCounters counters) {
+        return state.measure(counters, () -> state.memberRepository.findProjectionTypeByUsername(state.username, NestedClosedProjections.class));
+    }
+}
@@ -0,0 +1,68 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository 지표 수집 비용(datajpa.metrics.enabled false/true 비교)
+ *  - 2차 캐시에서 끝나는 findById처럼 빠른 호출일수록 상대 비용이 커지므로 빠른 호출과 일반 조회를 함께 잰다.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RepositoryMetricsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class MetricsState {
+
+        @Param({"false", "true"})
+        public boolean metrics;
+
+        ConfigurableApplicationContext context;
+        MemberRepository memberRepository;
+        MemberJpaRepository memberJpaRepository;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkApplication.start("datajpa.metrics.enabled=" + metrics);
+            BenchmarkApplication.seed(context, 10_000);
+            memberRepository = context.getBean(MemberRepository.class);
+            memberJpaRepository = context.getBean(MemberJpaRepository.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public Optional<MemberEntity> cachedFindById(MetricsState state) {
+        return state.memberRepository.findById(5_000L);
+    }
+
+    @Benchmark
+    public List<MemberEntity> derivedQuery(MetricsState state) {
+        return state.memberRepository.findTop3ByAge(42);
+    }
+
+    @Benchmark
+    public List<MemberEntity> pureJpa(MetricsState state) {
+        return state.memberJpaRepository.findByPage(42, 0, 10);
+    }
+}
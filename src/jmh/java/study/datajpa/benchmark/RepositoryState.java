@@ -0,0 +1,64 @@
+package study.datajpa.benchmark;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.function.Supplier;
+
+/**
+ * 회원 수(rows)별로 애플리케이션을 띄우고 데이터를 적재한 상태
+ *  - 조회 방식 자체를 비교하도록 기본은 2차 캐시/쿼리 캐시를 끈다.(캐시 적중 비교는 -p cache=true)
+ */
+@State(Scope.Benchmark)
+public class RepositoryState {
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    @Param({"false"})
+    public boolean cache;
+
+    public ConfigurableApplicationContext context;
+    public MemberRepository memberRepository;
+    public Statistics statistics;
+    /**
+     * 단건 조회용 회원 이름(중간 위치)
+     */
+    public String username;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(
+                "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cache,
+                "spring.jpa.properties.hibernate.cache.use_query_cache=" + cache);
+        BenchmarkApplication.seed(context, rows);
+        memberRepository = context.getBean(MemberRepository.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+        username = "member" + (rows / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 실행된 SQL 수를 counters에 누적
+     */
+    public <T> T measure(SqlCounters counters, Supplier<T> operation) {
+        long before = statistics.getPrepareStatementCount();
+        T result = operation.get();
+        counters.sqlStatements += statistics.getPrepareStatementCount() - before;
+        counters.calls++;
+        return result;
+    }
+}
@@ -0,0 +1,33 @@
+package study.datajpa.benchmark;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+
+/**
+ * BulkInsertBenchmark 기준선용 회원(벤치마크 실행 시에만 엔티티로 스캔된다)
+ *  - allocationSize = 1: insert마다 시퀀스를 조회한다.(pooled 최적화 이전 MemberEntity의 id 할당 방식)
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class SingleRowMemberEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "single_row_member_seq")
+    @SequenceGenerator(name = "single_row_member_seq", sequenceName = "single_row_member_seq", allocationSize = 1)
+    private Long id;
+    private String username;
+    private int age;
+
+    public SingleRowMemberEntity(String username, int age) {
+        this.username = username;
+        this.age = age;
+    }
+}
@@ -0,0 +1,86 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 한 나이의 회원 전체(10만 명 중 1,000명)를 페이지 단위로 소비
+ *  - sequential: 페이지 조회와 소비를 번갈아 실행(둘 다 id Keyset 페이징)
+ *  - prefetch: 소비하는 동안 다음 페이지를 조회(streamSliceByAge)
+ *  - work: 회원 한 명당 소비 비용(Blackhole.consumeCPU 토큰)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SlicePrefetchBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @State(Scope.Benchmark)
+    public static class SliceState {
+
+        @Param({"0", "2000"})
+        public int work;
+
+        ConfigurableApplicationContext context;
+        MemberRepository memberRepository;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            context = BenchmarkApplication.start(
+                    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false");
+            BenchmarkApplication.seed(context, 100_000);
+            memberRepository = context.getBean(MemberRepository.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public long sequential(SliceState state, Blackhole blackhole) {
+        long count = 0;
+        long afterId = Long.MIN_VALUE;
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE);
+        while (true) {
+            Slice<MemberEntity> slice = state.memberRepository.findSliceByAgeAndIdGreaterThanOrderByIdAsc(42, afterId, pageable);
+            for (MemberEntity member : slice) {
+                blackhole.consume(member);
+                Blackhole.consumeCPU(state.work);
+                afterId = member.getId();
+                count++;
+            }
+            if (!slice.hasNext()) {
+                return count;
+            }
+        }
+    }
+
+    @Benchmark
+    public long prefetch(SliceState state, Blackhole blackhole) {
+        try (Stream<MemberEntity> members = state.memberRepository.streamSliceByAge(42, PAGE_SIZE, 2)) {
+            return members.peek(member -> Blackhole.consumeCPU(state.work))
+                    .peek(blackhole::consume)
+                    .count();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 반복(iteration)마다 실행된 SQL 수와 호출 수
+ *  - 호출당 SQL 수 = sqlStatements / calls
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class SqlCounters {
+
+    public long sqlStatements;
+    public long calls;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        sqlStatements = 0;
+        calls = 0;
+    }
+}
@@ -2,15 +2,10 @@ package study.datajpa;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
-import java.util.Optional;
-import java.util.UUID;
-
-@EnableJpaAuditing()
+@EnableJpaAuditing(dateTimeProviderRef = "auditDateTimeProvider")  // AuditorAware, DateTimeProvider는 AuditConfig
 @SpringBootApplication
 //@EnableJpaRepositories(basePackages = "study.datajpa.repository")  // SpringBoot에서 알아서 경로를 잡아줌
 public class DatajpaApplication {
@@ -19,9 +14,4 @@ public class DatajpaApplication {
         SpringApplication.run(DatajpaApplication.class, args);
     }
 
-    @Bean
-    public AuditorAware<String> auditorProvider() {
-        return () -> Optional.of(UUID.randomUUID().toString());
-    }
-
 }
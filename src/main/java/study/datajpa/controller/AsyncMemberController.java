@@ -0,0 +1,71 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.count.CountMode;
+import study.datajpa.repository.count.PageCountCache;
+import study.datajpa.repository.keyset.KeysetSlice;
+import study.datajpa.support.async.RepositoryExecutor;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * MemberController와 같은 API를 RepositoryExecutor에서 실행(datajpa.async.enabled=true)
+ *  - 요청 스레드는 바로 반환되고 응답은 CompletableFuture가 완료될 때 쓴다.
+ *  - timeoutMs 파라미터로 요청별 제한 시간을 줄일 수 있다.
+ *  - 엔티티 -> DTO 변환도 작업 스레드에서 한다.(요청 스레드의 영속성 컨텍스트(OSIV)를 쓰지 않으므로)
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datajpa.async.enabled", havingValue = "true")
+public class AsyncMemberController {
+
+    private final MemberRepository repository;
+    private final PageCountCache pageCountCache;
+    private final RepositoryExecutor executor;
+
+    @GetMapping("/v1/members")
+    public CompletableFuture<Page<MemberDto>> list(Pageable pageable,
+                                                   @RequestParam(name = "count", required = false) CountMode countMode,
+                                                   @RequestParam(required = false) Long timeoutMs) {
+        CountMode mode = countMode != null ? countMode : pageCountCache.getDefaultMode();
+        return executor.submit(() -> repository.findDtoPage(pageable, mode), timeout(timeoutMs));
+    }
+
+    @GetMapping("/v2/members")
+    public CompletableFuture<KeysetSlice<MemberDto>> listByKeyset(Pageable pageable,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Long timeoutMs) {
+        return executor.submit(() -> repository.findAllByKeyset(cursor, pageable)
+                .map(e -> new MemberDto(e.getId(), e.getUsername())), timeout(timeoutMs));
+    }
+
+    @GetMapping("/v1/members/search")
+    public CompletableFuture<KeysetSlice<MemberDto>> search(MemberSearchCondition condition, Pageable pageable,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Long timeoutMs) {
+        return executor.submit(() -> repository.searchByKeyset(condition.toTerms(), cursor, pageable)
+                .map(e -> new MemberDto(e.getId(), e.getUsername())), timeout(timeoutMs));
+    }
+
+    private static Duration timeout(Long timeoutMs) {
+        if (timeoutMs == null) {
+            return null;
+        }
+        if (timeoutMs <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "timeoutMs must be positive: " + timeoutMs);
+        }
+        return Duration.ofMillis(timeoutMs);
+    }
+}
@@ -0,0 +1,62 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.repository.specification.MemberSpecCompiler;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+public class CacheController {
+
+    private final EntityManagerFactory emf;
+    private final MemberSpecCompiler specCompiler;
+
+    /**
+     * 2차 캐시 영역별 hit/miss/put, 메모리에 올라간 항목 수
+     *  - hibernate.generate_statistics가 true여야 값이 쌓인다.
+     *  - specQuery: MemberSpecCompiler의 shape별 JPQL 캐시 hit/miss, 컴파일 시간
+     */
+    @GetMapping("/v1/cache/stats")
+    public Map<String, Object> stats() {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            Map<String, Object> stat = new LinkedHashMap<>();
+            stat.put("hit", region.getHitCount());
+            stat.put("miss", region.getMissCount());
+            stat.put("put", region.getPutCount());
+            stat.put("size", region.getElementCountInMemory());
+            regions.put(regionName, stat);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("secondLevelCacheHit", statistics.getSecondLevelCacheHitCount());
+        result.put("secondLevelCacheMiss", statistics.getSecondLevelCacheMissCount());
+        result.put("queryCacheHit", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMiss", statistics.getQueryCacheMissCount());
+        result.put("regions", regions);
+
+        MemberSpecCompiler.Stats spec = specCompiler.getStats();
+        Map<String, Object> specQuery = new LinkedHashMap<>();
+        specQuery.put("hit", spec.getHits());
+        specQuery.put("miss", spec.getMisses());
+        specQuery.put("hitRate", spec.getHitRate());
+        specQuery.put("shapes", spec.getShapes());
+        specQuery.put("compileMicros", spec.getCompileNanos() / 1_000);
+        specQuery.put("queryPlanCacheHit", statistics.getQueryPlanCacheHitCount());
+        specQuery.put("queryPlanCacheMiss", statistics.getQueryPlanCacheMissCount());
+        result.put("specQuery", specQuery);
+        return result;
+    }
+}
@@ -1,26 +1,62 @@
 package study.datajpa.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import study.datajpa.dto.MemberDto;
+import study.datajpa.dto.MemberSearchCondition;
 import study.datajpa.entity.MemberEntity;
 import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.count.CountMode;
+import study.datajpa.repository.count.PageCountCache;
+import study.datajpa.repository.keyset.KeysetSlice;
 
+/**
+ * 요청 스레드에서 Repository를 호출하는 기본 모드(datajpa.async.enabled=true면 AsyncMemberController)
+ */
 @RestController
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "datajpa.async.enabled", havingValue = "false", matchIfMissing = true)
 public class MemberController {
 
     private final MemberRepository repository;
+    private final PageCountCache pageCountCache;
 
     /**
      * Web 확장 - 페이징과 정렬
      *  - Spring Data의 페이징 객체를 Spring MVC에서 편하게 사용할 수 있다.
+     *  - count 파라미터(EXACT, CACHED, ASYNC)가 없으면 datajpa.count.mode 설정값으로 total count를 구한다.
+     *  - 엔티티를 만들지 않고 JDBC 결과에서 바로 MemberDto를 만든다.(findDtoPage)
      */
     @GetMapping("/v1/members")
-    public Page<MemberDto> list(Pageable pageable) {
-        return repository.findAll(pageable).map(e -> new MemberDto(e.getId(), e.getUsername()));
+    public Page<MemberDto> list(Pageable pageable, @RequestParam(name = "count", required = false) CountMode countMode) {
+        CountMode mode = countMode != null ? countMode : pageCountCache.getDefaultMode();
+        return repository.findDtoPage(pageable, mode);
+    }
+
+    /**
+     * Keyset 페이징
+     *  - size, sort는 /v1/members와 동일하게 받고 page 대신 이전 응답의 nextCursor를 넘긴다.
+     *  - offset, count 쿼리가 없어 페이지가 깊어져도 조회 비용이 일정하다.
+     */
+    @GetMapping("/v2/members")
+    public KeysetSlice<MemberDto> listByKeyset(Pageable pageable, @RequestParam(required = false) String cursor) {
+        return repository.findAllByKeyset(cursor, pageable).map(e -> new MemberDto(e.getId(), e.getUsername()));
+    }
+
+    /**
+     * 조건 검색 + Keyset 페이징
+     *  - ageGoe, ageLoe, usernamePrefix, teamName, createdFrom, createdTo(ISO 날짜시간) 중 값이 있는 조건만 사용한다.
+     *  - 조건 조합마다 JPQL을 캐시하고(MemberSpecCompiler) 다음 페이지는 nextCursor로 조회한다.
+     */
+    @GetMapping("/v1/members/search")
+    public KeysetSlice<MemberDto> search(MemberSearchCondition condition, Pageable pageable,
+                                         @RequestParam(required = false) String cursor) {
+        return repository.searchByKeyset(condition.toTerms(), cursor, pageable)
+                .map(e -> new MemberDto(e.getId(), e.getUsername()));
     }
 }
@@ -0,0 +1,123 @@
+package study.datajpa.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.MemberRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@RestController
+@RequiredArgsConstructor
+public class MemberExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+
+    private final MemberRepository repository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Value("${datajpa.export.fetch-size:500}")
+    private int fetchSize;
+
+    /**
+     * 회원 전체 내보내기(NDJSON, CSV)
+     *  - 읽기 전용 트랜잭션에서 커서로 읽으면서 fetchSize 건마다 응답으로 flush 하기 때문에
+     *    회원 수와 관계없이 메모리 사용량이 일정하다.
+     *  - StreamingResponseBody는 요청 스레드가 아닌 별도 스레드에서 실행되므로 트랜잭션도 그 안에서 시작한다.
+     */
+    @GetMapping("/v1/members/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+        StreamingResponseBody body = out -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+            transaction.executeWithoutResult(status -> {
+                try (Stream<MemberEntity> members = repository.streamAll(fetchSize)) {
+                    if (csv) {
+                        writeCsv(members.iterator(), out);
+                    } else {
+                        writeNdjson(members.iterator(), out);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+        return ResponseEntity.ok()
+                             .contentType(csv ? CSV : NDJSON)
+                             .body(body);
+    }
+
+    private void writeNdjson(Iterator<MemberEntity> members, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        long rows = 0;
+        while (members.hasNext()) {
+            MemberEntity member = members.next();
+            generator.writeStartObject();
+            generator.writeNumberField("id", member.getId());
+            generator.writeStringField("username", member.getUsername());
+            generator.writeNumberField("age", member.getAge());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+            if (++rows % fetchSize == 0) {
+                generator.flush();
+            }
+        }
+        generator.close();
+    }
+
+    private void writeCsv(Iterator<MemberEntity> members, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,username,age\n");
+        long rows = 0;
+        while (members.hasNext()) {
+            MemberEntity member = members.next();
+            writer.write(String.valueOf(member.getId()));
+            writer.write(',');
+            writer.write(csvValue(member.getUsername()));
+            writer.write(',');
+            writer.write(String.valueOf(member.getAge()));
+            writer.write('\n');
+            if (++rows % fetchSize == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private static String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,29 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.repository.writebehind.MemberWriteBehindBuffer;
+
+/**
+ * MemberWriteBehindBuffer를 거치는 회원 변경 API(datajpa.write-behind.enabled=true)
+ *  - 같은 회원의 나이 변경은 window 동안 합쳐져 UPDATE 한번으로 반영된다.
+ *  - GROUP_COMMIT은 커밋 후, 그 외는 버퍼에 담은 뒤 202를 반환한다.
+ */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datajpa.write-behind.enabled", havingValue = "true")
+public class MemberWriteBehindController {
+
+    private final MemberWriteBehindBuffer buffer;
+
+    @PostMapping("/v1/members/{id}/age")
+    public ResponseEntity<Void> addAge(@PathVariable Long id, @RequestParam(defaultValue = "1") int delta) {
+        buffer.modify(id, member -> member.addAge(delta));
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -0,0 +1,37 @@
+package study.datajpa.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.repository.bulk.ChunkedBulkUpdater;
+import study.datajpa.repository.lock.OptimisticRetryTemplate;
+import study.datajpa.support.metrics.PrometheusRepositoryMetrics;
+import study.datajpa.support.metrics.RepositoryMetrics;
+import study.datajpa.support.sql.SqlBudgetInterceptor;
+
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datajpa.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryMetricsController {
+
+    private final RepositoryMetrics repositoryMetrics;
+    private final OptimisticRetryTemplate optimisticRetryTemplate;
+    private final ChunkedBulkUpdater bulkUpdater;
+    private final ObjectProvider<SqlBudgetInterceptor> sqlBudgetInterceptor;
+
+    /**
+     * Repository 메소드별 지표(Prometheus scrape 대상)
+     *  - 낙관적 락 재시도 통계(optimistic_retry_*), chunk bulk update 진행/처리량(bulk_update_*),
+     *    요청별 SQL 예산 초과(sql_budget_*, datajpa.sql.budget.enabled)를 함께 내보낸다.
+     */
+    @GetMapping(value = "/v1/metrics/repository", produces = "text/plain; version=0.0.4; charset=utf-8")
+    public String scrape() {
+        SqlBudgetInterceptor budget = sqlBudgetInterceptor.getIfAvailable();
+        return PrometheusRepositoryMetrics.format(repositoryMetrics.snapshot())
+                + PrometheusRepositoryMetrics.formatRetries(optimisticRetryTemplate.getStats())
+                + PrometheusRepositoryMetrics.formatBulkUpdates(bulkUpdater.getStats())
+                + (budget != null ? PrometheusRepositoryMetrics.formatSqlBudget(budget.getViolations()) : "");
+    }
+}
@@ -6,6 +6,11 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor
 public class MemberDto {
+    /**
+     * JSON 숫자로 내보낸다.
+     *  - datajpa.id.strategy=snowflake면 2^53을 넘으므로 숫자를 double로 읽는 클라이언트(JavaScript JSON.parse 등)는
+     *    값이 바뀐다. 이런 클라이언트는 64비트 정수를 지원하는 파서를 써야 한다.
+     */
     private Long id;
     private String username;
 
@@ -0,0 +1,35 @@
+package study.datajpa.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.format.annotation.DateTimeFormat;
+import study.datajpa.repository.specification.MemberSpec;
+import study.datajpa.repository.specification.MemberSpecTerm;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * /v1/members/search 검색 조건(값이 없는 조건은 무시)
+ */
+@Getter @Setter
+public class MemberSearchCondition {
+    private Integer ageGoe;
+    private Integer ageLoe;
+    private String usernamePrefix;
+    private String teamName;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdTo;
+
+    public List<MemberSpecTerm> toTerms() {
+        return List.of(
+                MemberSpec.ageGoe(ageGoe),
+                MemberSpec.ageLoe(ageLoe),
+                MemberSpec.usernameStartsWith(usernamePrefix),
+                MemberSpec.teamName(teamName),
+                MemberSpec.createdFrom(createdFrom),
+                MemberSpec.createdTo(createdTo));
+    }
+}
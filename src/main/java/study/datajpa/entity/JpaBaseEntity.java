@@ -1,6 +1,7 @@
 package study.datajpa.entity;
 
 import lombok.Getter;
+import study.datajpa.support.audit.AuditClock;
 
 import javax.persistence.Column;
 import javax.persistence.MappedSuperclass;
@@ -20,14 +21,14 @@ public class JpaBaseEntity {
 
     @PrePersist
     public void preInsert() {
-        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime now = AuditClock.now();
         creationTime = now;
         updateTime = now;
     }
 
     @PreUpdate
     public void preUpdate() {
-        updateTime = LocalDateTime.now();
+        updateTime = AuditClock.now();
     }
 
 }
@@ -1,13 +1,28 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
 
 import static javax.persistence.FetchType.*;
 
+/**
+ * 인덱스(IndexAdvisor가 기동 시 EXPLAIN으로 사용 여부 확인)
+ *  - (username, age): findByUsername, findByUsernameAndAgeGreaterThan
+ *  - (age, username): Member.findByAge, findPageByAge, findSliceByAge, findTop3ByAge, MemberJpaRepository.findByPage(username desc 정렬)
+ *  - (team_id): TeamEntity.members 초기화, TeamRepository.recountMembers
+ */
 @Entity
-@Table(name = "MEMBER")
+@Table(name = "MEMBER", indexes = {
+        @Index(name = "IDX_MEMBER_USERNAME_AGE", columnList = "username, age"),
+        @Index(name = "IDX_MEMBER_AGE_USERNAME", columnList = "age, username"),
+        @Index(name = "IDX_MEMBER_TEAM_ID", columnList = "TEAM_ID")
+})
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "username", "age"})
@@ -16,21 +31,60 @@ import static javax.persistence.FetchType.*;
         query = "select m from MemberEntity m where m.age = :age"
 )
 @NamedEntityGraph(name = "Member.all", attributeNodes = @NamedAttributeNode("team"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class MemberEntity extends BaseEntity {
+    /**
+     * 시퀀스 + pooled 최적화(allocationSize 단위로 메모리에서 id 할당)
+     *  - IDENTITY 전략은 insert 시점에 id를 알 수 있어 JDBC batch insert가 불가능하다.
+     *  - datajpa.id.strategy로 stripe별 블록 할당(block), 시각 순서 id(snowflake)를 선택할 수 있다.(BlockAllocatingIdGenerator)
+     */
     @Id
-    @GeneratedValue
+    @GeneratedValue(generator = "member_id_generator")
+    @GenericGenerator(name = "member_id_generator", strategy = "study.datajpa.support.id.BlockAllocatingIdGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "member_seq"),
+                    @Parameter(name = "increment_size", value = "50")
+            })
     @Column(name = "MEMBER_ID")
     private Long id;
     private String username;
     private int age;
 
+    /**
+     * 낙관적 락(수정 시 version 비교, 다르면 OptimisticLockException)
+     *  - bulk update는 "update versioned"로 version도 증가시킨다.
+     */
+    @Version
+    private Long version;
+
     @ManyToOne(fetch = LAZY)
     @JoinColumn(name = "TEAM_ID")
     private TeamEntity team;
 
+    /**
+     * 팀 변경(연관관계의 주인은 team, members는 mappedBy라 DB에는 team_id만 반영된다)
+     *  - 이전 팀 members에서 빼고 새 팀 members에 넣는다.
+     *  - 이미 로딩된 컬렉션만 고친다. 프록시 팀이나 초기화 전 컬렉션은 건드리지 않아 회원이 많은 팀도 비용이 일정하다.
+     *    (flush 후 초기화될 때 team_id 기준으로 채워진다)
+     */
     public void changeTeam(TeamEntity team) {
+        TeamEntity previous = this.team;
         this.team = team;
-        team.getMembers().add(this);
+        if (previous != null && previous != team && isMembersLoaded(previous)) {
+            previous.getMembers().remove(this);
+        }
+        if (team != null && isMembersLoaded(team)) {
+            team.getMembers().add(this);
+        }
+    }
+
+    private static boolean isMembersLoaded(TeamEntity team) {
+        return Hibernate.isInitialized(team) && Hibernate.isInitialized(team.getMembers());
+    }
+
+    public void addAge(int delta) {
+        this.age += delta;
     }
 
     public MemberEntity(String username) {
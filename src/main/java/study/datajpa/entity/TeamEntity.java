@@ -1,10 +1,16 @@
 package study.datajpa.entity;
 
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import javax.persistence.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Set;
 
 import static javax.persistence.FetchType.*;
 
@@ -13,14 +19,42 @@ import static javax.persistence.FetchType.*;
 @Getter @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString(of = {"id", "name"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class TeamEntity {
-    @Id @GeneratedValue
+    @Id
+    @GeneratedValue(generator = "team_id_generator")
+    @GenericGenerator(name = "team_id_generator", strategy = "study.datajpa.support.id.BlockAllocatingIdGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "team_seq"),
+                    @Parameter(name = "increment_size", value = "50")
+            })
     @Column(name = "TEAM_ID")
     private Long id;
     private String name;
+    @Version
+    private Long version;
 
+    /**
+     * 회원 수(TeamMemberCountListener가 회원 저장/삭제/팀 변경 시 커밋 직전에 member_count + delta 로 갱신)
+     *  - 엔티티로는 쓰지 않는다.(insert/update 제외) 같은 영속성 컨텍스트에 이미 있던 팀은 이전 값을 가진다.
+     *  - MemberRepository의 *InBatch 삭제는 직접 보정한다. 그 외 JPQL/native bulk delete, JDBC 적재처럼
+     *    이벤트가 없는 경로 뒤에는 TeamRepository.recountMembers()로 다시 센다.
+     */
+    @ColumnDefault("0")
+    @Column(insertable = false, updatable = false)
+    @Setter(AccessLevel.NONE)
+    private long memberCount;
+
+    /**
+     * 여러 팀의 members를 초기화할 때 최대 100개 팀씩 IN 쿼리 한번으로 조회
+     *  - Set이라 포함 여부/삭제가 O(1)이다.(MemberEntity.changeTeam)
+     *  - 회원 수만 필요하면 컬렉션 대신 memberCount를 사용한다.(size()는 컬렉션을 초기화한다)
+     */
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @OneToMany(mappedBy = "team", fetch = LAZY)
-    List<MemberEntity> members = new ArrayList<>();
+    Set<MemberEntity> members = new HashSet<>();
 
     public TeamEntity(String name) {
         this.name = name;
@@ -1,11 +1,111 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.bulk.BulkUpdateResult;
+import study.datajpa.repository.count.CountMode;
+import study.datajpa.repository.keyset.KeysetSlice;
+import study.datajpa.repository.lock.LockingMode;
+import study.datajpa.repository.projection.MemberProjection;
+import study.datajpa.repository.projection.UsernameOnlyDto;
+import study.datajpa.repository.specification.MemberSpecTerm;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MemberCustomRepository {
     List<MemberEntity> selectCustomMember();
+
+    /**
+     * Keyset(Seek) 페이징
+     *  - pageable의 page 번호는 무시하고 size와 sort만 사용한다.
+     *  - cursor가 null이면 첫 페이지
+     */
+    KeysetSlice<MemberEntity> findAllByKeyset(String cursor, Pageable pageable);
+
+    /**
+     * count 방식을 선택할 수 있는 페이징
+     *  - CACHED, ASYNC는 PageCountCache를 사용한다.
+     */
+    Page<MemberEntity> findAll(Pageable pageable, CountMode countMode);
+
+    Page<MemberEntity> findPageByAge(int age, Pageable pageable, CountMode countMode);
+
+    /**
+     * 전체 회원 스트리밍 조회(forward-only 커서)
+     *  - 트랜잭션 안에서 사용하고 다 쓴 Stream은 반드시 close 해야 한다.
+     *  - readOnly 힌트로 스냅샷을 만들지 않고, 다음 회원을 읽을 때 직전 회원을 분리해 관리되는 회원 수가 일정하다.
+     *  - 호출 전부터 관리되던 엔티티와 flush 전 변경은 그대로 둔다. fetchSize는 1 이상이어야 한다.
+     */
+    Stream<MemberEntity> streamAll(int fetchSize);
+
+    /**
+     * 나이가 age인 회원을 id 순으로 끝까지 조회하는 Stream(다음 페이지를 미리 조회, PrefetchingSliceIterator)
+     *  - 직전 페이지의 마지막 id 이후를 조회하므로 페이지가 깊어져도 비용이 일정하고, 조회 중 추가/삭제가 있어도 건너뛰거나 중복되지 않는다.
+     *  - 페이지마다 별도 읽기 트랜잭션이므로 엔티티는 준영속 상태이고 메모리에는 lookahead + 1 페이지만 남는다.
+     *  - 페이지 조회는 SlicePrefetchExecutor 스레드에서 실행된다.
+     *  - 다 쓴 Stream은 close 해야 남은 조회가 취소된다.
+     */
+    Stream<MemberEntity> streamSliceByAge(int age, int pageSize, int lookahead);
+
+    /**
+     * Chunk 단위 bulkAgePlus
+     *  - id 순으로 chunkSize 명씩(Keyset) 나누어 chunk마다 커밋한다.(트랜잭션 밖에서 호출)
+     *  - resumeAfterId가 null이면 처음부터, 아니면 해당 id 이후부터 실행한다.
+     */
+    BulkUpdateResult bulkAgePlusChunked(int age, int chunkSize, Long resumeAfterId);
+
+    /**
+     * MemberSpec 조건 검색(MemberSpecCompiler로 조건 조합마다 JPQL을 캐시)
+     *  - findAll(Specification)과 결과는 같고, 비어있는 조건은 무시한다.
+     */
+    List<MemberEntity> findAllBySpec(MemberSpecTerm... terms);
+
+    /**
+     * MemberSpec 조건 검색 + Keyset 페이징(findAllByKeyset과 같은 커서 규칙)
+     *  - 조건과 커서 조건을 모두 SQL where 절로 보내고 size + 1 행만 조회한다.(count 쿼리 없음)
+     *  - 정렬 가능 속성은 회원의 기본 속성, 정렬 끝에 id를 붙인다.
+     */
+    KeysetSlice<MemberEntity> searchByKeyset(List<MemberSpecTerm> terms, String cursor, Pageable pageable);
+
+    /**
+     * DTO 직접 조회(JDBC)
+     *  - 필요한 컬럼만 SELECT 하고 결과 행에서 바로 DTO를 만든다.(엔티티, 프록시, 영속성 컨텍스트 없음)
+     *  - JPQL이 아니므로 자동 flush가 일어나지 않는다. 같은 트랜잭션에서 변경한 내용은 먼저 flush 해야 보인다.
+     *  - 정렬은 회원의 기본 속성만 가능하다.
+     */
+    Page<MemberDto> findDtoPage(Pageable pageable, CountMode countMode);
+
+    List<UsernameOnlyDto> findUsernameDtoByUsername(String username);
+
+    /**
+     * 회원 + 팀 이름 native 페이징(NativePageExecutor)
+     *  - 프록시 대신 컬럼 순서로 MemberProjectionRow를 만든다.
+     *  - 정렬 가능 속성: id, username, teamName
+     */
+    Page<MemberProjection> findNativeProjectionPage(Pageable pageable);
+
+    /**
+     * username이 같은 회원들의 나이를 delta 만큼 변경
+     *  - PESSIMISTIC: findLockByUsername과 같이 select ... for update 후 수정(호출자 트랜잭션이 있으면 참여)
+     *  - OPTIMISTIC: 잠금 없이 조회 후 수정하고 version 충돌 시 새 트랜잭션에서 재시도(트랜잭션 밖에서 호출)
+     *
+     * @return 수정한 회원 수
+     */
+    int addAgeByUsername(String username, int delta, LockingMode mode);
+
+    /**
+     * JpaRepository의 *InBatch 삭제(JPQL bulk delete) + 팀 회원 수 보정
+     *  - bulk delete는 Hibernate 이벤트가 없어 TeamMemberCountListener를 거치지 않으므로
+     *    같은 트랜잭션에서 회원이 있던 팀의 member_count를 다시 센다.
+     */
+    void deleteAllInBatch();
+
+    void deleteAllInBatch(Iterable<MemberEntity> entities);
+
+    void deleteAllByIdInBatch(Iterable<Long> ids);
 }
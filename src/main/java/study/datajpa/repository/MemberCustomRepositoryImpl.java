@@ -1,19 +1,484 @@
 package study.datajpa.repository;
 
 import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.bulk.BulkUpdateResult;
+import study.datajpa.repository.bulk.ChunkUpdate;
+import study.datajpa.repository.bulk.ChunkedBulkUpdater;
+import study.datajpa.repository.count.CountMode;
+import study.datajpa.repository.count.PageCountCache;
+import study.datajpa.repository.keyset.InvalidKeysetException;
+import study.datajpa.repository.keyset.KeysetCursor;
+import study.datajpa.repository.keyset.KeysetPredicate;
+import study.datajpa.repository.keyset.KeysetSlice;
+import study.datajpa.repository.lock.LockingMode;
+import study.datajpa.repository.lock.OptimisticRetryTemplate;
+import study.datajpa.repository.nativequery.NativePageExecutor;
+import study.datajpa.repository.nativequery.NativePageQuery;
+import study.datajpa.repository.projection.DtoRowMapper;
+import study.datajpa.repository.projection.EntityColumns;
+import study.datajpa.repository.projection.MemberProjection;
+import study.datajpa.repository.projection.UsernameOnlyDto;
+import study.datajpa.repository.slice.PrefetchingSliceIterator;
+import study.datajpa.repository.slice.SlicePrefetchExecutor;
+import study.datajpa.repository.specification.MemberSpecCompiler;
+import study.datajpa.repository.specification.MemberSpecTerm;
 
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import javax.persistence.metamodel.Attribute;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * 사용자 정의 Repository 구현
+ *  - 조회 메소드는 @Transactional(readOnly = true): 호출자 트랜잭션이 없으면 읽기 전용 트랜잭션을 열어 replica로 라우팅된다.
+ *    (Spring Data는 사용자 정의 구현에 트랜잭션을 붙이지 않는다)
+ *  - streamAll은 호출자 트랜잭션 안에서, bulkAgePlusChunked, addAgeByUsername, streamSliceByAge는 직접 트랜잭션을 나누므로 붙이지 않는다.
+ *  - *InBatch 삭제는 JpaRepository 기본 구현 대신 사용된다.(팀 회원 수 보정)
+ */
 @RequiredArgsConstructor
 public class MemberCustomRepositoryImpl implements MemberCustomRepository {
     @PersistenceContext
     private final EntityManager em;
+    private final PageCountCache pageCountCache;
+    private final ChunkedBulkUpdater bulkUpdater;
+    private final MemberSpecCompiler specCompiler;
+    private final JdbcTemplate jdbcTemplate;
+    private final NativePageExecutor nativePageExecutor;
+    private final NativePageQuery<MemberProjection> memberProjectionQuery;
+    private final OptimisticRetryTemplate optimisticRetryTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final SlicePrefetchExecutor slicePrefetchExecutor;
+    private volatile EntityColumns memberColumns;
 
     @Override
+    @Transactional(readOnly = true)
     public List<MemberEntity> selectCustomMember() {
         return em.createQuery("select m from MemberEntity m where m.age >= 19").getResultList();
     }
+
+    /**
+     * Keyset 페이징
+     *  - 정렬 조건 끝에 id를 붙여 정렬 키를 유일하게 만든다.
+     *  - 커서 조건은 KeysetPredicate로 만들고, count 쿼리는 실행하지 않는다.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetSlice<MemberEntity> findAllByKeyset(String cursor, Pageable pageable) {
+        return keysetQuery("select m from MemberEntity m", false, List.of(), cursor, pageable);
+    }
+
+    /**
+     * 조건은 MemberSpecCompiler의 JPQL을, 커서 조건은 findAllByKeyset과 같은 KeysetPredicate를 붙인다.
+     *  - 커서 값이 null인지에 따라 JPQL이 달라지지만 경우의 수가 적어 쿼리 플랜 캐시로 재사용된다.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public KeysetSlice<MemberEntity> searchByKeyset(List<MemberSpecTerm> terms, String cursor, Pageable pageable) {
+        MemberSpecCompiler.CompiledSpec spec = specCompiler.compile(terms);
+        return keysetQuery(spec.getJpql(), !spec.getParameters().isEmpty(), spec.getParameters(), cursor, pageable);
+    }
+
+    /**
+     * @param hasWhere select에 이미 where 절이 있으면 커서 조건을 and로 붙인다.
+     */
+    private KeysetSlice<MemberEntity> keysetQuery(String select, boolean hasWhere, List<MemberSpecTerm> parameters,
+                                                  String cursor, Pageable pageable) {
+        Sort sort = keysetSort(pageable.getSort());
+        List<Sort.Order> orders = sort.stream().collect(Collectors.toList());
+
+        StringBuilder jpql = new StringBuilder(select);
+        KeysetPredicate after = null;
+        if (cursor != null) {
+            List<String> keys = KeysetCursor.decode(cursor, sort);
+            List<Object> values = new ArrayList<>(orders.size());
+            for (int i = 0; i < orders.size(); i++) {
+                values.add(parseKey(keysetType(orders.get(i).getProperty()), keys.get(i)));
+            }
+            after = KeysetPredicate.after("m", orders, values);
+            jpql.append(hasWhere ? " and " : " where ").append(after.getJpql());
+        }
+        jpql.append(KeysetPredicate.orderBy("m", orders));
+
+        TypedQuery<MemberEntity> query = em.createQuery(jpql.toString(), MemberEntity.class);
+        for (MemberSpecTerm term : parameters) {
+            query.setParameter(term.getKey(), term.getValue());
+        }
+        if (after != null) {
+            after.bind(query);
+        }
+        return keysetSlice(query, sort, pageable.getPageSize());
+    }
+
+    /**
+     * size + 1 행을 조회해서 다음 페이지가 있으면 마지막 행의 정렬 키로 커서를 만든다.
+     */
+    private static KeysetSlice<MemberEntity> keysetSlice(TypedQuery<MemberEntity> query, Sort sort, int size) {
+        List<MemberEntity> rows = query.setMaxResults(size + 1).getResultList();
+        if (rows.size() <= size) {
+            return new KeysetSlice<>(rows, size, null);
+        }
+        List<MemberEntity> content = rows.subList(0, size);
+        BeanWrapperImpl last = new BeanWrapperImpl(content.get(size - 1));
+        List<Object> lastKeys = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            lastKeys.add(last.getPropertyValue(order.getProperty()));
+        }
+        return new KeysetSlice<>(new ArrayList<>(content), size, KeysetCursor.encode(sort, lastKeys));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MemberEntity> findAll(Pageable pageable, CountMode countMode) {
+        String jpql = QueryUtils.applySorting("select m from MemberEntity m", pageable.getSort(), "m");
+        List<MemberEntity> content = page(em.createQuery(jpql, MemberEntity.class), pageable);
+        return PageableExecutionUtils.getPage(content, pageable, () -> pageCountCache.count(
+                "Member.count", countMode, PageCountCache.lowerBound(content, pageable),
+                () -> em.createQuery("select count(m) from MemberEntity m", Long.class).getSingleResult()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MemberEntity> findPageByAge(int age, Pageable pageable, CountMode countMode) {
+        String jpql = QueryUtils.applySorting("select m from MemberEntity m where m.age = :age", pageable.getSort(), "m");
+        List<MemberEntity> content = page(em.createQuery(jpql, MemberEntity.class).setParameter("age", age), pageable);
+        return PageableExecutionUtils.getPage(content, pageable, () -> pageCountCache.count(
+                "Member.countByAge", countMode, PageCountCache.lowerBound(content, pageable),
+                () -> em.createQuery("select count(m) from MemberEntity m where m.age = :age", Long.class)
+                        .setParameter("age", age)
+                        .getSingleResult(),
+                age));
+    }
+
+    /**
+     * 스트림이 다음 회원을 내보낼 때 직전 회원만 분리(detach)한다.
+     *  - 호출 전부터 관리되던 회원과 호출자의 다른 변경은 그대로 둔다.(em.clear를 쓰지 않는 이유)
+     *  - 지금 처리 중인 회원은 관리 상태라 지연로딩(team)을 사용할 수 있다.
+     */
+    @Override
+    public Stream<MemberEntity> streamAll(int fetchSize) {
+        if (fetchSize < 1) {
+            throw new IllegalArgumentException("fetchSize must be positive: " + fetchSize);
+        }
+        Set<Object> managed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Map.Entry<Object, EntityEntry> entry : em.unwrap(SessionImplementor.class).getPersistenceContext().reentrantSafeEntityEntries()) {
+            if (entry.getKey() instanceof MemberEntity) {
+                managed.add(entry.getKey());
+            }
+        }
+        AtomicReference<MemberEntity> previous = new AtomicReference<>();
+        Runnable detachPrevious = () -> {
+            MemberEntity member = previous.getAndSet(null);
+            if (member != null && !managed.contains(member) && em.contains(member)) {
+                em.detach(member);
+            }
+        };
+        return em.createQuery("select m from MemberEntity m order by m.id", MemberEntity.class)
+                .setHint("org.hibernate.fetchSize", fetchSize)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()
+                .peek(m -> {
+                    detachPrevious.run();
+                    previous.set(m);
+                })
+                .onClose(detachPrevious);
+    }
+
+    /**
+     * 페이지마다 읽기 전용 트랜잭션을 열어 조회한다.(findSliceByAgeAndIdGreaterThanOrderByIdAsc와 같은 쿼리)
+     */
+    @Override
+    public Stream<MemberEntity> streamSliceByAge(int age, int pageSize, int lookahead) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+        }
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return PrefetchingSliceIterator.stream(previous -> readOnly.execute(status -> sliceByAge(age,
+                previous == null ? Long.MIN_VALUE : previous.getContent().get(previous.getNumberOfElements() - 1).getId(),
+                pageSize)), lookahead, slicePrefetchExecutor);
+    }
+
+    private Slice<MemberEntity> sliceByAge(int age, long afterId, int pageSize) {
+        List<MemberEntity> content = em.createQuery(
+                        "select m from MemberEntity m where m.age = :age and m.id > :afterId order by m.id", MemberEntity.class)
+                .setParameter("age", age)
+                .setParameter("afterId", afterId)
+                .setMaxResults(pageSize + 1)
+                .getResultList();
+        boolean hasNext = content.size() > pageSize;
+        return new SliceImpl<>(hasNext ? new ArrayList<>(content.subList(0, pageSize)) : content,
+                PageRequest.of(0, pageSize), hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MemberDto> findDtoPage(Pageable pageable, CountMode countMode) {
+        EntityColumns columns = memberColumns();
+        StringBuilder sql = new StringBuilder("select ")
+                .append(columns.column("id")).append(", ").append(columns.column("username"))
+                .append(" from ").append(columns.table())
+                .append(" order by ");
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        boolean first = true;
+        for (Sort.Order order : sort) {
+            sql.append(first ? "" : ", ").append(columns.column(order.getProperty())).append(order.isAscending() ? " asc" : " desc");
+            first = false;
+        }
+        List<MemberDto> content;
+        if (pageable.isPaged()) {
+            sql.append(" offset ? rows fetch next ? rows only");
+            content = jdbcTemplate.query(sql.toString(), DtoRowMapper.of(MemberDto.class, 2), pageable.getOffset(), pageable.getPageSize());
+        } else {
+            content = jdbcTemplate.query(sql.toString(), DtoRowMapper.of(MemberDto.class, 2));
+        }
+        return PageableExecutionUtils.getPage(content, pageable, () -> pageCountCache.count(
+                "Member.count", countMode, PageCountCache.lowerBound(content, pageable),
+                () -> jdbcTemplate.queryForObject("select count(*) from " + columns.table(), Long.class)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UsernameOnlyDto> findUsernameDtoByUsername(String username) {
+        EntityColumns columns = memberColumns();
+        String column = columns.column("username");
+        return jdbcTemplate.query("select " + column + " from " + columns.table() + " where " + column + " = ?",
+                DtoRowMapper.of(UsernameOnlyDto.class, 1), username);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<MemberProjection> findNativeProjectionPage(Pageable pageable) {
+        return nativePageExecutor.page(memberProjectionQuery, pageable);
+    }
+
+    private EntityColumns memberColumns() {
+        EntityColumns columns = memberColumns;
+        if (columns == null) {
+            columns = EntityColumns.of(em.getEntityManagerFactory(), MemberEntity.class);
+            memberColumns = columns;
+        }
+        return columns;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<MemberEntity> findAllBySpec(MemberSpecTerm... terms) {
+        MemberSpecCompiler.CompiledSpec spec = specCompiler.compile(Arrays.asList(terms));
+        TypedQuery<MemberEntity> query = em.createQuery(spec.getJpql(), MemberEntity.class);
+        for (MemberSpecTerm term : spec.getParameters()) {
+            query.setParameter(term.getKey(), term.getValue());
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * chunk마다 다음 chunkSize 개의 id를 id 순으로 고르고(Keyset) 그 범위를 update 한 뒤 영속성 컨텍스트를 clear 한다.
+     *  - 시작 시점의 최대 id까지만 처리한다.(실행 중 추가된 회원은 제외)
+     *  - 일부 chunk만 커밋되고 실패해도 count 캐시는 무효화한다.
+     */
+    @Override
+    public BulkUpdateResult bulkAgePlusChunked(int age, int chunkSize, Long resumeAfterId) {
+        Long maxId = em.createQuery("select max(m.id) from MemberEntity m", Long.class).getSingleResult();
+        if (maxId == null) {
+            return new BulkUpdateResult(0, 0, resumeAfterId == null ? 0 : resumeAfterId, Duration.ZERO);
+        }
+        long afterId = resumeAfterId != null ? resumeAfterId : Long.MIN_VALUE;
+        try {
+            return bulkUpdater.execute("Member.bulkAgePlus", afterId, chunkSize, (after, size) -> {
+                List<Long> ids = em.createQuery("select m.id from MemberEntity m" +
+                                " where m.id > :after and m.id <= :max order by m.id", Long.class)
+                        .setParameter("after", after)
+                        .setParameter("max", maxId)
+                        .setMaxResults(size)
+                        .getResultList();
+                if (ids.isEmpty()) {
+                    return null;
+                }
+                long last = ids.get(ids.size() - 1);
+                int rows = em.createQuery("update versioned MemberEntity m set m.age = m.age + 1" +
+                                " where m.age >= :age and m.id > :after and m.id <= :last")
+                        .setParameter("age", age)
+                        .setParameter("after", after)
+                        .setParameter("last", last)
+                        .executeUpdate();
+                em.clear();
+                return new ChunkUpdate.Chunk(ids.size(), rows, last);
+            });
+        } finally {
+            pageCountCache.invalidateAll();
+        }
+    }
+
+    @Override
+    public int addAgeByUsername(String username, int delta, LockingMode mode) {
+        if (mode == LockingMode.OPTIMISTIC) {
+            return optimisticRetryTemplate.execute("Member.addAgeByUsername", () -> addAge(username, delta, LockModeType.NONE));
+        }
+        Integer updated = new TransactionTemplate(transactionManager)
+                .execute(status -> addAge(username, delta, LockModeType.PESSIMISTIC_WRITE));
+        return updated == null ? 0 : updated;
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllInBatch() {
+        deleteMembers(null);
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllInBatch(Iterable<MemberEntity> entities) {
+        List<Long> ids = new ArrayList<>();
+        for (MemberEntity member : entities) {
+            if (member.getId() != null) {
+                ids.add(member.getId());
+            }
+        }
+        deleteMembers(ids);
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        List<Long> list = new ArrayList<>();
+        ids.forEach(list::add);
+        deleteMembers(list);
+    }
+
+    /**
+     * JPQL bulk delete 후 같은 트랜잭션에서 회원이 있던 팀의 member_count를 다시 센다.
+     *  - 다시 세므로 아직 커밋되지 않은 다른 트랜잭션의 증감(TeamMemberCountListener)이 나중에 더해져도 맞다.
+     *  - 영속성 컨텍스트는 그대로 둔다.(SimpleJpaRepository와 동일)
+     *
+     * @param ids null이면 전체 회원
+     */
+    private void deleteMembers(List<Long> ids) {
+        if (ids != null && ids.isEmpty()) {
+            return;
+        }
+        String where = ids == null ? "" : " where m.id in :ids";
+        TypedQuery<Long> teams = em.createQuery("select distinct m.team.id from MemberEntity m" + where, Long.class);
+        Query delete = em.createQuery("delete from MemberEntity m" + where);
+        if (ids != null) {
+            teams.setParameter("ids", ids);
+            delete.setParameter("ids", ids);
+        }
+        List<Long> teamIds = teams.getResultList().stream()
+                .filter(Objects::nonNull)
+                .sorted()
+                .collect(Collectors.toList());
+        delete.executeUpdate();
+        if (!teamIds.isEmpty()) {
+            em.createQuery("update TeamEntity t set t.memberCount =" +
+                            " (select count(m) from MemberEntity m where m.team.id = t.id) where t.id in :teamIds")
+                    .setParameter("teamIds", teamIds)
+                    .executeUpdate();
+        }
+        pageCountCache.invalidateAll();
+    }
+
+    /**
+     * 변경 감지로 수정(version 증가는 커밋 시 flush에서 확인)
+     */
+    private int addAge(String username, int delta, LockModeType lockMode) {
+        List<MemberEntity> members = em.createQuery("select m from MemberEntity m where m.username = :username", MemberEntity.class)
+                .setParameter("username", username)
+                .setLockMode(lockMode)
+                .getResultList();
+        members.forEach(m -> m.addAge(delta));
+        return members.size();
+    }
+
+    private static <T> List<T> page(TypedQuery<T> query, Pageable pageable) {
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+
+    /**
+     * 정렬 속성 검증 후 id를 tie-breaker로 추가
+     */
+    private Sort keysetSort(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            keysetType(order.getProperty());
+            orders.add(order);
+            if ("id".equals(order.getProperty())) {
+                return Sort.by(orders);
+            }
+        }
+        orders.add(Sort.Order.asc("id"));
+        return Sort.by(orders);
+    }
+
+    private Class<?> keysetType(String property) {
+        Attribute<? super MemberEntity, ?> attribute;
+        try {
+            attribute = em.getMetamodel().entity(MemberEntity.class).getAttribute(property);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidKeysetException("Unknown sort property: " + property, e);
+        }
+        if (attribute.getPersistentAttributeType() != Attribute.PersistentAttributeType.BASIC) {
+            throw new InvalidKeysetException("Keyset paging supports basic properties only: " + property);
+        }
+        return attribute.getJavaType();
+    }
+
+    private static Object parseKey(Class<?> type, String key) {
+        if (key == null) {
+            return null;
+        }
+        try {
+            if (type == String.class) {
+                return key;
+            }
+            if (type == Long.class || type == long.class) {
+                return Long.valueOf(key);
+            }
+            if (type == Integer.class || type == int.class) {
+                return Integer.valueOf(key);
+            }
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(key);
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new InvalidKeysetException("Malformed keyset cursor", e);
+        }
+        throw new InvalidKeysetException("Unsupported keyset property type: " + type.getName());
+    }
 }
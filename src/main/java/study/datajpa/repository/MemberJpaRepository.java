@@ -1,20 +1,54 @@
 package study.datajpa.repository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.MemberEntity;
+import study.datajpa.entity.TeamEntity;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public class MemberJpaRepository {
     @PersistenceContext
     private EntityManager em;
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
     public MemberEntity save(MemberEntity member) {
         em.persist(member);
         return member;
     }
+
+    /**
+     * 대량 저장(JDBC batch insert)
+     *  - batchSize 단위로 flush/clear 하여 영속성 컨텍스트가 커지지 않도록 한다.
+     *  - 아직 저장되지 않은 팀은 회원보다 먼저 persist 한다.(order_inserts 설정으로 team -> member 순서로 묶여서 insert)
+     *  - clear가 일어나므로 호출 이전에 조회한 엔티티를 포함해 모두 준영속 상태가 된다.
+     */
+    @Transactional
+    public long saveAllBatched(Stream<MemberEntity> members) {
+        long count = 0;
+        Iterator<MemberEntity> iterator = members.iterator();
+        while (iterator.hasNext()) {
+            MemberEntity member = iterator.next();
+            TeamEntity team = member.getTeam();
+            if (team != null && team.getId() == null) {
+                em.persist(team);
+            }
+            em.persist(member);
+            if (++count % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
     public void delete(MemberEntity member) {
         em.remove(member);
     }
@@ -65,7 +99,7 @@ public class MemberJpaRepository {
      * Bulk update Query
      */
     public int bulkAgePlus(int age) {
-        int resultCount = em.createQuery("update MemberEntity m set m.age = m.age + 1 where m.age >= :age")
+        int resultCount = em.createQuery("update versioned MemberEntity m set m.age = m.age + 1 where m.age >= :age")
                 .setParameter("age", age)
                 .executeUpdate();
         return resultCount;
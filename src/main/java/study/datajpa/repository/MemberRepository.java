@@ -6,6 +6,7 @@ import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.MemberEntity;
 import study.datajpa.repository.projection.MemberProjection;
 import study.datajpa.repository.projection.UsernameOnly;
@@ -17,6 +18,11 @@ import java.util.List;
 
 @Repository
 public interface MemberRepository extends JpaRepository<MemberEntity, Long>, MemberCustomRepository, JpaSpecificationExecutor<MemberEntity> {
+    /**
+     * 쿼리 캐시 사용
+     *  - 결과 회원 id 목록을 캐시하고, MEMBER 테이블이 변경(bulk update 포함)되면 무효화된다.
+     */
+    @QueryHints(value = @QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<MemberEntity> findByUsername(String username);
     List<MemberEntity> findByUsernameAndAgeGreaterThan(String username, int age);
 
@@ -27,8 +33,18 @@ public interface MemberRepository extends JpaRepository<MemberEntity, Long>, Mem
             countQuery = "select count(m.username) from MemberEntity m")
     Page<MemberEntity> findPageByAge(int age, Pageable pageable);
 
+    /**
+     * 읽기 분리(datajpa.datasource.replication) 사용 시 readOnly 트랜잭션은 replica에서 조회한다.
+     */
+    @Transactional(readOnly = true)
     Slice<MemberEntity> findSliceByAge(int age, Pageable pageable);
 
+    /**
+     * id Keyset 페이징(offset 없이 id > afterId 부터 조회, streamSliceByAge와 같은 조건)
+     */
+    @Transactional(readOnly = true)
+    Slice<MemberEntity> findSliceByAgeAndIdGreaterThanOrderByIdAsc(int age, Long afterId, Pageable pageable);
+
     /**
      * (참고)QueryMethod 기능을 사용한 TopN 쿼리
      */
@@ -38,8 +54,9 @@ public interface MemberRepository extends JpaRepository<MemberEntity, Long>, Mem
      * Spring Data JPA Bulk Update Query
      *  - @Modifying 어노테이션이 없으면 Update 쿼리로 인식하지 않는다. -> invalidDataAccessApiUsageException 발생
      */
+    @Transactional
     @Modifying(clearAutomatically = true)
-    @Query("update MemberEntity m set m.age = m.age + 1 where m.age >= :age")
+    @Query("update versioned MemberEntity m set m.age = m.age + 1 where m.age >= :age")
     int bulkAgePlus(@Param("age") int age);
 
     /**
@@ -75,8 +92,10 @@ public interface MemberRepository extends JpaRepository<MemberEntity, Long>, Mem
      * JPA 기본 스펙에서는 제공하지는 않지만 JPA 구현체에서 제공하는 기능을 쓸 수 있는 길을 열어놓음
      *  - readOnly: dirtyChecking 등 1차 캐시기능이 굳이 필요없는 경우 snapshot 기능을 제공하지 않아 성능 개선
      */
+    @Transactional(readOnly = true)
     @QueryHints(value = @QueryHint(name = "org.hibernate.readOnly", value = "true"))
     List<MemberEntity> findReadOnlyByUsername(String username);
+    @Transactional
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     List<MemberEntity> findLockByUsername(String username);
 
@@ -92,9 +111,13 @@ public interface MemberRepository extends JpaRepository<MemberEntity, Long>, Mem
     @Query(value = "select * from member where username = ?", nativeQuery = true)
     MemberEntity findByNativeQuery(String username);
 
+    /**
+     * 조인 조건이 없으면 회원 x 팀 카티션 곱이 된다.
+     *  - 페이징은 MemberCustomRepository.findNativeProjectionPage(NativePageExecutor) 참고
+     */
     @Query(value = "select m.member_id as id, m.username, t.name as teamName " +
-            "from member m left join team t",
-            countQuery = "select coutn(*) from member",
+            "from member m left join team t on m.team_id = t.team_id",
+            countQuery = "select count(*) from member",
             nativeQuery = true)
     Page<MemberProjection> findByNativeProjection(Pageable pageable);
 }
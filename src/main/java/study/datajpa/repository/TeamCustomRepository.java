@@ -0,0 +1,18 @@
+package study.datajpa.repository;
+
+import org.springframework.stereotype.Repository;
+import study.datajpa.entity.MemberEntity;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+public interface TeamCustomRepository {
+    /**
+     * 여러 팀의 회원을 IN 쿼리로 한번에 조회해서 팀 id별로 묶어 반환
+     *  - 팀 수가 datajpa.team.member-batch-size를 넘으면 그 단위로 나눠서 조회한다.
+     *  - 회원이 없는 팀은 빈 리스트
+     */
+    Map<Long, List<MemberEntity>> findMembersByTeamIds(Collection<Long> teamIds);
+}
@@ -0,0 +1,43 @@
+package study.datajpa.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import study.datajpa.entity.MemberEntity;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class TeamCustomRepositoryImpl implements TeamCustomRepository {
+    @PersistenceContext
+    private final EntityManager em;
+
+    @Value("${datajpa.team.member-batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public Map<Long, List<MemberEntity>> findMembersByTeamIds(Collection<Long> teamIds) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(teamIds));
+        Map<Long, List<MemberEntity>> result = new LinkedHashMap<>();
+        for (Long id : ids) {
+            result.put(id, new ArrayList<>());
+        }
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            List<Object[]> rows = em.createQuery(
+                            "select m.team.id, m from MemberEntity m where m.team.id in :teamIds order by m.id", Object[].class)
+                    .setParameter("teamIds", chunk)
+                    .getResultList();
+            for (Object[] row : rows) {
+                result.get((Long) row[0]).add((MemberEntity) row[1]);
+            }
+        }
+        return result;
+    }
+}
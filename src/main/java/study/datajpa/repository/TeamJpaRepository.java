@@ -1,19 +1,45 @@
 package study.datajpa.repository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.TeamEntity;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public class TeamJpaRepository {
     @PersistenceContext
     private EntityManager em;
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}")
+    private int batchSize;
     public TeamEntity save(TeamEntity TeamEntity) {
         em.persist(TeamEntity);
         return TeamEntity;
     }
+
+    /**
+     * 대량 저장(JDBC batch insert)
+     *  - batchSize 단위로 flush/clear, 호출 이전에 조회한 엔티티도 준영속 상태가 된다.
+     */
+    @Transactional
+    public long saveAllBatched(Stream<TeamEntity> teams) {
+        long count = 0;
+        Iterator<TeamEntity> iterator = teams.iterator();
+        while (iterator.hasNext()) {
+            em.persist(iterator.next());
+            if (++count % batchSize == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        em.flush();
+        em.clear();
+        return count;
+    }
     public void delete(TeamEntity TeamEntity) {
         em.remove(TeamEntity);
     }
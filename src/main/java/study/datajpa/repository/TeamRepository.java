@@ -1,9 +1,40 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.TeamEntity;
+import study.datajpa.repository.projection.TeamMemberCount;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
-public interface TeamRepository extends JpaRepository<TeamEntity, Long> {
+public interface TeamRepository extends JpaRepository<TeamEntity, Long>, TeamCustomRepository {
+
+    /**
+     * 팀과 회원을 Fetch Join으로 한번에 조회(컬렉션 Fetch Join이라 페이징 불가)
+     */
+    @Query("select distinct t from TeamEntity t left join fetch t.members where t.id in :ids")
+    List<TeamEntity> findWithMembersByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 팀 목록 + 회원 수를 한번에 조회(team 테이블만 읽는다)
+     */
+    Page<TeamMemberCount> findMemberCountsBy(Pageable pageable);
+
+    List<TeamMemberCount> findMemberCountsByIdIn(Collection<Long> ids);
+
+    /**
+     * 회원 수 다시 세기(JPQL/native bulk delete, JDBC 적재 등 Hibernate 이벤트가 없는 경로 뒤에 호출)
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query(value = "update team t set member_count = (select count(*) from member m where m.team_id = t.team_id)", nativeQuery = true)
+    int recountMembers();
 }
@@ -0,0 +1,31 @@
+package study.datajpa.repository.bulk;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.Duration;
+
+/**
+ * Chunk 단위 bulk update 결과
+ *  - lastId: 마지막으로 커밋된 chunk의 마지막 id, 실패 후 다시 실행할 때 resumeAfterId로 넘긴다.
+ */
+@Getter
+@ToString
+public class BulkUpdateResult {
+    private final long rows;
+    private final int chunks;
+    private final long lastId;
+    private final Duration elapsed;
+
+    public BulkUpdateResult(long rows, int chunks, long lastId, Duration elapsed) {
+        this.rows = rows;
+        this.chunks = chunks;
+        this.lastId = lastId;
+        this.elapsed = elapsed;
+    }
+
+    public double rowsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : rows * 1_000_000_000d / nanos;
+    }
+}
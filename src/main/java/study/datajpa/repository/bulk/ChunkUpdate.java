@@ -0,0 +1,34 @@
+package study.datajpa.repository.bulk;
+
+import lombok.Getter;
+
+/**
+ * 한 chunk의 update
+ *  - afterId 이후 id 순으로 최대 chunkSize 행을 골라 갱신한다.(id가 띄엄띄엄해도 chunk마다 실제 행을 처리)
+ */
+@FunctionalInterface
+public interface ChunkUpdate {
+
+    /**
+     * @return 이번 chunk 결과, afterId 이후 대상 행이 없으면 null
+     */
+    Chunk update(long afterId, int chunkSize);
+
+    @Getter
+    final class Chunk {
+        private final int keys;
+        private final int rows;
+        private final long lastId;
+
+        /**
+         * @param keys   고른 id 수(chunkSize보다 적으면 마지막 chunk)
+         * @param rows   갱신된 행 수
+         * @param lastId 고른 id 중 마지막 id
+         */
+        public Chunk(int keys, int rows, long lastId) {
+            this.keys = keys;
+            this.rows = rows;
+            this.lastId = lastId;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.repository.bulk;
+
+import lombok.Getter;
+
+/**
+ * Chunk 실행 중 실패
+ *  - 실패한 chunk만 롤백되고 이전 chunk는 이미 커밋되어 있다.
+ *  - getResult().getLastId()부터 다시 실행하면 이어서 처리할 수 있다.
+ */
+@Getter
+public class ChunkedBulkUpdateException extends RuntimeException {
+    private final BulkUpdateResult result;
+
+    public ChunkedBulkUpdateException(String name, BulkUpdateResult result, Throwable cause) {
+        super(name + " failed after id " + result.getLastId() + " (" + result.getRows() + " rows committed)", cause);
+        this.result = result;
+    }
+}
@@ -0,0 +1,144 @@
+package study.datajpa.repository.bulk;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PK 순서로 chunk 단위로 나누어 실행하는 bulk update
+ *  - 한번에 전체를 update 하면 커밋까지 모든 행의 락을 잡고 있으므로, chunk마다 별도 트랜잭션으로 커밋한다.
+ *  - chunk는 id 산술 범위가 아니라 직전 chunk의 마지막 id 이후 chunkSize 행(Keyset)이다.
+ *    (snowflake처럼 id가 띄엄띄엄해도 chunk 수는 행 수 / chunkSize)
+ *  - 바깥 트랜잭션 안에서는 실행할 수 없다.(chunk 커밋이 바깥 트랜잭션과 따로 놀게 되므로)
+ *  - chunk 사이에 chunk-pause 만큼 쉬어 다른 트랜잭션이 락을 얻을 수 있게 한다.
+ *  - 작업 이름별로 실행/실패/chunk/행 수, 진행 위치(lastId), 처리량을 기록한다.(/v1/metrics/repository)
+ */
+@Slf4j
+@Component
+public class ChunkedBulkUpdater {
+
+    private static final long PROGRESS_LOG_INTERVAL_NANOS = Duration.ofSeconds(5).toNanos();
+
+    private final TransactionTemplate chunkTransaction;
+    private final Duration pause;
+    private final ConcurrentMap<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public ChunkedBulkUpdater(PlatformTransactionManager transactionManager,
+                              @Value("${datajpa.bulk.chunk-pause:0ms}") Duration pause) {
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.pause = pause;
+    }
+
+    /**
+     * afterId 이후 행을 chunkSize 씩 update(대상 행이 없을 때까지)
+     */
+    public BulkUpdateResult execute(String name, long afterId, int chunkSize, ChunkUpdate update) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException(name + " commits per chunk and must not run inside a transaction");
+        }
+        Stats stat = stats.computeIfAbsent(name, key -> new Stats());
+        stat.runs.increment();
+        long start = System.nanoTime();
+        long lastLog = start;
+        long rows = 0;
+        int chunks = 0;
+        long from = afterId;
+        while (true) {
+            long lower = from;
+            ChunkUpdate.Chunk chunk;
+            try {
+                chunk = chunkTransaction.execute(status -> update.update(lower, chunkSize));
+            } catch (RuntimeException e) {
+                stat.failures.increment();
+                throw new ChunkedBulkUpdateException(name, result(rows, chunks, from, start), e);
+            }
+            if (chunk == null) {
+                break;
+            }
+            chunks++;
+            rows += chunk.getRows();
+            from = chunk.getLastId();
+            stat.progress(chunk, rows, start);
+
+            long now = System.nanoTime();
+            if (now - lastLog >= PROGRESS_LOG_INTERVAL_NANOS) {
+                log.info("{}: {} rows in {} chunks, after id {}", name, rows, chunks, from);
+                lastLog = now;
+            }
+            if (chunk.getKeys() < chunkSize) {
+                break;
+            }
+            if (!sleep()) {
+                stat.failures.increment();
+                throw new ChunkedBulkUpdateException(name, result(rows, chunks, from, start),
+                        new InterruptedException("Interrupted between chunks"));
+            }
+        }
+        BulkUpdateResult result = result(rows, chunks, from, start);
+        stat.elapsedNanos.add(result.getElapsed().toNanos());
+        log.info("{}: done, {} rows in {} chunks ({} rows/s)", name, rows, chunks, Math.round(result.rowsPerSecond()));
+        return result;
+    }
+
+    /**
+     * @return 작업 이름 순으로 정렬된 통계
+     */
+    public Map<String, Stats> getStats() {
+        return new TreeMap<>(stats);
+    }
+
+    private boolean sleep() {
+        if (pause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static BulkUpdateResult result(long rows, int chunks, long lastId, long start) {
+        return new BulkUpdateResult(rows, chunks, lastId, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    @Getter
+    public static class Stats {
+        private final LongAdder runs = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder chunks = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        /** 끝까지 실행된 작업의 소요 시간 합 */
+        private final LongAdder elapsedNanos = new LongAdder();
+        /** 마지막으로 커밋된 chunk의 마지막 id(진행 위치) */
+        private volatile long lastId;
+        /** 진행 중(또는 마지막) 실행의 초당 갱신 행 수 */
+        private volatile double rowsPerSecond;
+
+        private void progress(ChunkUpdate.Chunk chunk, long runRows, long start) {
+            chunks.increment();
+            rows.add(chunk.getRows());
+            lastId = chunk.getLastId();
+            long nanos = System.nanoTime() - start;
+            rowsPerSecond = nanos == 0 ? 0 : runRows * 1_000_000_000d / nanos;
+        }
+    }
+}
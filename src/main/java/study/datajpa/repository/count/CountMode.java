@@ -0,0 +1,11 @@
+package study.datajpa.repository.count;
+
+/**
+ * Page 조회 시 total count를 구하는 방식
+ *  - EXACT: 매 요청마다 count 쿼리 실행(Spring Data 기본 동작)
+ *  - CACHED: (쿼리, 파라미터) 단위로 count를 TTL 동안 캐시, 만료되면 요청 스레드에서 다시 조회
+ *  - ASYNC: 캐시된 값(만료되었더라도)을 바로 반환하고 백그라운드에서 갱신, 캐시가 없으면 현재 페이지 기준 추정치 반환
+ */
+public enum CountMode {
+    EXACT, CACHED, ASYNC
+}
@@ -0,0 +1,150 @@
+package study.datajpa.repository.count;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Page count 캐시
+ *  - (count 쿼리 이름, 파라미터) 단위로 count 결과를 TTL 동안 보관한다.(Caffeine, 최대 max-entries 개)
+ *    파라미터(나이, 이름 등)마다 항목이 생기므로 크기를 제한하고 만료된 항목은 제거한다.
+ *  - ASYNC: 캐시가 없으면(만료 포함) 백그라운드 갱신을 시작하고 현재 페이지로 아는 최소값(lowerBound)을 반환한다.
+ *  - bulk update 등 대량 변경 시 invalidateAll()로 전체 무효화(세대 번호를 올려 진행 중인 갱신 결과도 버린다)
+ *  - 단건 save/delete는 무효화하지 않으므로 TTL 동안은 count가 실제와 다를 수 있다.
+ */
+@Slf4j
+@Component
+public class PageCountCache {
+
+    private final Cache<List<Object>, Entry> counts;
+    private final Set<List<Object>> refreshing = ConcurrentHashMap.newKeySet();
+    private final AtomicLong generation = new AtomicLong();
+    private final ThreadPoolExecutor refresher;
+    @Getter
+    private final CountMode defaultMode;
+
+    public PageCountCache(@Value("${datajpa.count.ttl:30s}") Duration ttl,
+                          @Value("${datajpa.count.max-entries:10000}") long maxEntries,
+                          @Value("${datajpa.count.mode:exact}") CountMode defaultMode) {
+        this.counts = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxEntries)
+                .build();
+        this.defaultMode = defaultMode;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("page-count-");
+        threadFactory.setDaemon(true);
+        this.refresher = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(64), threadFactory);
+    }
+
+    /**
+     * @param query   count 쿼리를 구분하는 이름
+     * @param lowerBound ASYNC 모드에서 캐시가 없을 때 반환할 추정치
+     * @param counter 실제 count 쿼리
+     * @param params  count 쿼리 파라미터
+     */
+    public long count(String query, CountMode mode, long lowerBound, LongSupplier counter, Object... params) {
+        if (mode == CountMode.EXACT) {
+            return counter.getAsLong();
+        }
+        List<Object> key = new ArrayList<>(params.length + 1);
+        key.add(query);
+        key.addAll(Arrays.asList(params));
+
+        long gen = generation.get();
+        Entry entry = counts.getIfPresent(key);
+        if (entry != null && entry.generation == gen) {
+            return entry.value;
+        }
+        if (mode == CountMode.CACHED) {
+            long value = counter.getAsLong();
+            store(key, value, gen);
+            return value;
+        }
+        refreshAsync(key, counter, gen);
+        return lowerBound;
+    }
+
+    /**
+     * 현재 페이지만으로 알 수 있는 total의 최소값
+     */
+    public static long lowerBound(List<?> content, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return content.size();
+        }
+        boolean full = content.size() == pageable.getPageSize();
+        return pageable.getOffset() + content.size() + (full ? 1 : 0);
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        counts.invalidateAll();
+    }
+
+    /**
+     * @return 보관 중인 count 수(만료/초과 항목 정리 후)
+     */
+    long size() {
+        counts.cleanUp();
+        return counts.estimatedSize();
+    }
+
+    private void refreshAsync(List<Object> key, LongSupplier counter, long gen) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    store(key, counter.getAsLong(), gen);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to refresh page count {}", key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    private void store(List<Object> key, long value, long gen) {
+        if (generation.get() == gen) {
+            counts.put(key, new Entry(value, gen));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private static final class Entry {
+        private final long value;
+        private final long generation;
+
+        private Entry(long value, long generation) {
+            this.value = value;
+            this.generation = generation;
+        }
+    }
+}
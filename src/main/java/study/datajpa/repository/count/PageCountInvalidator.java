@@ -0,0 +1,34 @@
+package study.datajpa.repository.count;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bulk update 이후 Page count 캐시 무효화
+ *  - Bulk 쿼리는 영속성 컨텍스트를 거치지 않으므로 Repository의 bulk* 메소드 실행을 기준으로 무효화한다.
+ *  - 커밋 전 다른 요청이 이전 데이터로 다시 캐시할 수 있어 커밋 이후에 한번 더 무효화한다.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class PageCountInvalidator {
+
+    private final PageCountCache pageCountCache;
+
+    @AfterReturning("execution(* study.datajpa.repository.*Repository.bulk*(..))")
+    public void invalidate() {
+        pageCountCache.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pageCountCache.invalidateAll();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package study.datajpa.repository.index;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 쿼리 하나에 대한 인덱스 분석 결과
+ *  - columns: 동등 조건 컬럼 -> 첫 범위 조건 컬럼(범위 조건이 없으면 정렬 컬럼) 순서의 권장 인덱스
+ *  - plan: H2 EXPLAIN 결과(H2가 아니면 null), indexUsed: 루트 테이블을 전체 스캔하지 않으면 true
+ */
+@Getter
+@RequiredArgsConstructor
+public class IndexAdvice {
+
+    private final String query;
+    private final String sql;
+    private final String table;
+    private final List<String> columns;
+    private final String plan;
+    private final boolean indexUsed;
+
+    public boolean needsIndex() {
+        return !columns.isEmpty() && plan != null && !indexUsed;
+    }
+
+    public String ddl() {
+        return "create index " + indexName() + " on " + table + " (" + String.join(", ", columns) + ")";
+    }
+
+    public String annotation() {
+        return "@Index(name = \"" + indexName().toUpperCase() + "\", columnList = \"" + String.join(", ", columns) + "\")";
+    }
+
+    private String indexName() {
+        return ("idx_" + table + "_" + String.join("_", columns)).toLowerCase();
+    }
+}
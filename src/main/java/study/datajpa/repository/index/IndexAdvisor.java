@@ -0,0 +1,254 @@
+package study.datajpa.repository.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.NamedQuery;
+import javax.persistence.metamodel.EntityType;
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 기동 시 Repository 쿼리의 인덱스 분석(datajpa.index-advisor.enabled)
+ *  - 파생 쿼리(PartTree), @Query JPQL, 엔티티의 @NamedQuery를 Hibernate로 SQL 변환한 뒤
+ *    루트 테이블의 where 조건과 order by에서 권장 인덱스 컬럼을 구한다.
+ *  - H2면 EXPLAIN으로 실제로 인덱스를 타는지 확인하고, 전체 스캔하는 쿼리는 DDL과 @Index를 경고로 남긴다.
+ *  - native 쿼리, Pageable로 정렬이 정해지는 쿼리의 정렬, 코드에서 만드는 JPQL(MemberJpaRepository)은 분석하지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datajpa.index-advisor.enabled", havingValue = "true", matchIfMissing = true)
+public class IndexAdvisor implements SmartInitializingSingleton {
+
+    private static final Pattern ROOT_TABLE = Pattern.compile("\\sfrom\\s+(\\w+)\\s+(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CONDITION = Pattern.compile("(\\w+)\\.(\\w+)\\s*(>=|<=|<>|=|>|<|like\\b|between\\b|in\\b)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern WHERE = Pattern.compile("\\swhere\\s", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ORDER_BY = Pattern.compile("\\sorder\\s+by\\s+(.+)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ORDER_COLUMN = Pattern.compile("(\\w+)\\.(\\w+)");
+
+    private final ListableBeanFactory beanFactory;
+    private final EntityManagerFactory emf;
+    private final DataSource dataSource;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (IndexAdvice advice : advise()) {
+            if (advice.needsIndex()) {
+                log.warn("{} scans {} without an index, suggested: {} / {}", advice.getQuery(), advice.getTable(),
+                        advice.ddl(), advice.annotation());
+            } else {
+                log.debug("{} uses an index on {}", advice.getQuery(), advice.getTable());
+            }
+        }
+    }
+
+    public List<IndexAdvice> advise() {
+        Map<String, String> queries = collect();
+        SessionFactoryImplementor sessionFactory = emf.unwrap(SessionFactoryImplementor.class);
+        List<IndexAdvice> advices = new ArrayList<>(queries.size());
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            boolean h2 = connection.getMetaData().getDatabaseProductName().startsWith("H2");
+            for (Map.Entry<String, String> query : queries.entrySet()) {
+                String sql;
+                try {
+                    sql = sessionFactory.getQueryPlanCache()
+                            .getHQLQueryPlan(query.getValue(), false, Collections.emptyMap())
+                            .getSqlStrings()[0];
+                } catch (RuntimeException e) {
+                    log.debug("Skipping {}: {}", query.getKey(), e.getMessage());
+                    continue;
+                }
+                advices.add(analyze(query.getKey(), sql, h2 ? connection : null));
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to explain repository queries", e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        return advices;
+    }
+
+    /**
+     * 쿼리 이름 -> JPQL
+     */
+    private Map<String, String> collect() {
+        Map<String, String> queries = new LinkedHashMap<>();
+        for (EntityType<?> entity : emf.getMetamodel().getEntities()) {
+            for (NamedQuery namedQuery : entity.getJavaType().getAnnotationsByType(NamedQuery.class)) {
+                queries.put(namedQuery.name(), namedQuery.query());
+            }
+        }
+        Repositories repositories = new Repositories(beanFactory);
+        for (Class<?> domainType : repositories) {
+            repositories.getRepositoryInformation(domainType).ifPresent(information -> {
+                String entityName = emf.getMetamodel().entity(domainType).getName();
+                for (Method method : information.getQueryMethods()) {
+                    String name = information.getRepositoryInterface().getSimpleName() + "." + method.getName();
+                    Query query = method.getAnnotation(Query.class);
+                    if (query != null) {
+                        if (!query.nativeQuery() && StringUtils.hasText(query.value())) {
+                            queries.put(name, query.value());
+                        }
+                        continue;
+                    }
+                    String jpql = derivedJpql(entityName, domainType, method.getName());
+                    if (jpql != null) {
+                        queries.put(name, jpql);
+                    }
+                }
+            });
+        }
+        return queries;
+    }
+
+    /**
+     * 파생 쿼리 메소드 이름 -> JPQL(파라미터 이름은 의미 없음)
+     *
+     * @return 분석하지 않는 조건(Near, Regex 등)이 있으면 null
+     */
+    static String derivedJpql(String entityName, Class<?> domainType, String methodName) {
+        PartTree tree;
+        try {
+            tree = new PartTree(methodName, domainType);
+        } catch (RuntimeException e) {
+            return null;
+        }
+        StringBuilder jpql = new StringBuilder("select e from ").append(entityName).append(" e");
+        List<String> or = new ArrayList<>();
+        int parameter = 0;
+        for (PartTree.OrPart orPart : tree) {
+            List<String> and = new ArrayList<>();
+            for (Part part : orPart) {
+                String path = "e." + part.getProperty().toDotPath();
+                String p = ":p" + parameter++;
+                switch (part.getType()) {
+                    case SIMPLE_PROPERTY: and.add(path + " = " + p); break;
+                    case NEGATING_SIMPLE_PROPERTY: and.add(path + " <> " + p); break;
+                    case GREATER_THAN: case AFTER: and.add(path + " > " + p); break;
+                    case GREATER_THAN_EQUAL: and.add(path + " >= " + p); break;
+                    case LESS_THAN: case BEFORE: and.add(path + " < " + p); break;
+                    case LESS_THAN_EQUAL: and.add(path + " <= " + p); break;
+                    case BETWEEN: and.add(path + " between " + p + " and :p" + parameter++); break;
+                    case LIKE: case STARTING_WITH: case ENDING_WITH: case CONTAINING: and.add(path + " like " + p); break;
+                    case IN: and.add(path + " in (" + p + ")"); break;
+                    case IS_NULL: and.add(path + " is null"); break;
+                    case IS_NOT_NULL: and.add(path + " is not null"); break;
+                    default: return null;
+                }
+            }
+            or.add(String.join(" and ", and));
+        }
+        if (!or.isEmpty()) {
+            jpql.append(" where ").append(or.size() == 1 ? or.get(0) : "(" + String.join(") or (", or) + ")");
+        }
+        Sort sort = tree.getSort();
+        if (sort.isSorted()) {
+            List<String> orders = new ArrayList<>();
+            sort.forEach(order -> orders.add("e." + order.getProperty() + (order.isAscending() ? " asc" : " desc")));
+            jpql.append(" order by ").append(String.join(", ", orders));
+        }
+        return jpql.toString();
+    }
+
+    static IndexAdvice analyze(String name, String sql, Connection h2) throws SQLException {
+        Matcher root = ROOT_TABLE.matcher(sql);
+        if (!root.find()) {
+            return new IndexAdvice(name, sql, null, Collections.emptyList(), null, true);
+        }
+        String table = root.group(1);
+        String alias = root.group(2);
+        int orderBy = indexOfOrderBy(sql);
+        // join on 조건은 제외
+        Matcher whereStart = WHERE.matcher(sql);
+        String where = !whereStart.find(root.end()) ? "" : sql.substring(whereStart.end(), orderBy < 0 ? sql.length() : orderBy);
+
+        Set<String> equality = new LinkedHashSet<>();
+        String range = null;
+        Matcher condition = CONDITION.matcher(where);
+        while (condition.find()) {
+            if (!condition.group(1).equalsIgnoreCase(alias)) {
+                continue;
+            }
+            String operator = condition.group(3).toLowerCase(Locale.ROOT);
+            if (operator.equals("=") || operator.equals("in")) {
+                equality.add(condition.group(2));
+            } else if (!operator.equals("<>") && range == null) {
+                range = condition.group(2);
+            }
+        }
+        List<String> columns = new ArrayList<>(equality);
+        if (range != null && !equality.contains(range)) {
+            columns.add(range);
+        } else if (orderBy >= 0) {
+            Matcher order = ORDER_COLUMN.matcher(sql.substring(orderBy));
+            while (order.find()) {
+                if (order.group(1).equalsIgnoreCase(alias) && !columns.contains(order.group(2))) {
+                    columns.add(order.group(2));
+                }
+            }
+        }
+        if (equality.isEmpty() && range == null) {
+            // 조건 없이 정렬만 하는 쿼리는 인덱스보다 전체 스캔이 낫다.
+            columns.clear();
+        }
+        if (h2 == null) {
+            return new IndexAdvice(name, sql, table, columns, null, false);
+        }
+        String plan = explain(h2, sql);
+        boolean indexUsed = !plan.toLowerCase(Locale.ROOT).contains((table + ".tableScan").toLowerCase(Locale.ROOT));
+        return new IndexAdvice(name, sql, table, columns, plan, indexUsed);
+    }
+
+    private static int indexOfOrderBy(String sql) {
+        Matcher matcher = ORDER_BY.matcher(sql);
+        return matcher.find() ? matcher.start() : -1;
+    }
+
+    /**
+     * 파라미터를 null로 채워 EXPLAIN(H2는 prepare 시점에 실행 계획을 정한다)
+     */
+    private static String explain(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            try (ResultSet rs = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+                return plan.toString();
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package study.datajpa.repository.keyset;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Keyset 페이징 요청 오류(클라이언트 입력)
+ *  - 변조/손상된 커서, 정렬 조건과 맞지 않는 커서, 지원하지 않는 정렬 속성
+ *  - Repository 프록시가 InvalidDataAccessApiUsageException으로 감싸도 원인의 @ResponseStatus로 400 응답한다.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidKeysetException extends IllegalArgumentException {
+
+    public InvalidKeysetException(String message) {
+        super(message);
+    }
+
+    public InvalidKeysetException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
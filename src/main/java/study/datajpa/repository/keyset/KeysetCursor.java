@@ -0,0 +1,76 @@
+package study.datajpa.repository.keyset;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset 페이징 커서
+ *  - 마지막 행의 정렬 키 값들과 정렬 조건을 URL-safe Base64로 인코딩한 불투명(opaque) 문자열
+ *  - 커서를 만들 때와 다른 정렬 조건으로는 사용할 수 없다.
+ *  - 클라이언트가 보낸 값이므로 형식이 맞지 않으면 InvalidKeysetException(400)
+ */
+public final class KeysetCursor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> PAYLOAD = new TypeReference<>() {};
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(Sort sort, List<?> values) {
+        List<String> keys = new ArrayList<>(values.size());
+        for (Object value : values) {
+            keys.add(value == null ? null : value.toString());
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("s", signature(sort));
+        payload.put("v", keys);
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                         .encodeToString(MAPPER.writeValueAsBytes(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode keyset cursor", e);
+        }
+    }
+
+    /**
+     * @return 정렬 조건 순서대로의 키 값(문자열 또는 null). 타입 변환은 호출하는 쪽에서 한다.
+     */
+    public static List<String> decode(String cursor, Sort sort) {
+        Map<String, Object> payload;
+        try {
+            payload = MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), PAYLOAD);
+        } catch (Exception e) {
+            throw new InvalidKeysetException("Malformed keyset cursor", e);
+        }
+        if (payload == null || !signature(sort).equals(payload.get("s"))) {
+            throw new InvalidKeysetException("Keyset cursor does not match sort [" + signature(sort) + "]");
+        }
+        if (!(payload.get("v") instanceof List) || ((List<?>) payload.get("v")).size() != sort.stream().count()) {
+            throw new InvalidKeysetException("Malformed keyset cursor");
+        }
+        List<String> values = new ArrayList<>();
+        for (Object value : (List<?>) payload.get("v")) {
+            if (value != null && !(value instanceof String)) {
+                throw new InvalidKeysetException("Malformed keyset cursor");
+            }
+            values.add((String) value);
+        }
+        return values;
+    }
+
+    private static String signature(Sort sort) {
+        return sort.stream()
+                   .map(o -> o.getProperty() + ":" + o.getDirection())
+                   .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,79 @@
+package study.datajpa.repository.keyset;
+
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.TypedQuery;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset 커서 조건 JPQL(findAllByKeyset, searchByKeyset 공용)
+ *  - 커서 이후의 행만 (k1 > v1) or (k1 = v1 and k2 > v2) or ... 조건으로 조회한다.
+ *  - null은 가장 작은 값으로 취급한다(H2 기본 정렬과 동일). 값이 null인 키는 파라미터 없이 is null로 비교한다.
+ *  - 파라미터 이름은 정렬 순서대로 k0, k1, ...
+ */
+public final class KeysetPredicate {
+
+    private final String jpql;
+    private final Map<String, Object> parameters;
+
+    private KeysetPredicate(String jpql, Map<String, Object> parameters) {
+        this.jpql = jpql;
+        this.parameters = parameters;
+    }
+
+    /**
+     * @param values orders와 같은 순서의 마지막 행 정렬 키 값
+     */
+    public static KeysetPredicate after(String alias, List<Sort.Order> orders, List<Object> values) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            if (values.get(i) != null) {
+                parameters.put("k" + i, values.get(i));
+            }
+        }
+        List<String> or = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            List<String> and = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                String path = alias + "." + orders.get(j).getProperty();
+                and.add(values.get(j) == null ? path + " is null" : path + " = :k" + j);
+            }
+            String beyond = beyond(alias + "." + orders.get(i).getProperty(), orders.get(i), values.get(i), ":k" + i);
+            if (beyond == null) {
+                continue;
+            }
+            and.add(beyond);
+            or.add(String.join(" and ", and));
+        }
+        return new KeysetPredicate(or.isEmpty() ? "1 = 0" : "(" + String.join(" or ", or) + ")", parameters);
+    }
+
+    public static String orderBy(String alias, List<Sort.Order> orders) {
+        return " order by " + orders.stream()
+                .map(order -> alias + "." + order.getProperty() + (order.isAscending() ? " asc" : " desc"))
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * 정렬 방향으로 value 다음에 오는 값 조건, 다음 값이 없으면 null(desc에서 null은 마지막)
+     */
+    private static String beyond(String path, Sort.Order order, Object value, String parameter) {
+        if (order.isAscending()) {
+            return value == null ? path + " is not null" : path + " > " + parameter;
+        }
+        return value == null ? null : "(" + path + " < " + parameter + " or " + path + " is null)";
+    }
+
+    public String getJpql() {
+        return jpql;
+    }
+
+    public <T> TypedQuery<T> bind(TypedQuery<T> query) {
+        parameters.forEach(query::setParameter);
+        return query;
+    }
+}
@@ -0,0 +1,34 @@
+package study.datajpa.repository.keyset;
+
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keyset 페이징 결과
+ *  - Slice와 비슷하지만 페이지 번호 대신 다음 페이지 조회용 커서(nextCursor)를 가진다.
+ *  - 마지막 페이지인 경우 nextCursor는 null
+ */
+@Getter
+public class KeysetSlice<T> {
+    private final List<T> content;
+    private final int size;
+    private final String nextCursor;
+
+    public KeysetSlice(List<T> content, int size, String nextCursor) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public <U> KeysetSlice<U> map(Function<? super T, ? extends U> converter) {
+        List<U> converted = content.stream().map(converter).collect(Collectors.toList());
+        return new KeysetSlice<>(converted, size, nextCursor);
+    }
+}
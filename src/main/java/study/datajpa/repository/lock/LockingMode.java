@@ -0,0 +1,10 @@
+package study.datajpa.repository.lock;
+
+/**
+ * 동시 수정 제어 방식
+ *  - PESSIMISTIC: select ... for update 로 행을 잠그고 수정(대기 발생)
+ *  - OPTIMISTIC: 잠그지 않고 커밋 시 version 비교, 충돌하면 OptimisticRetryTemplate이 재시도
+ */
+public enum LockingMode {
+    PESSIMISTIC, OPTIMISTIC
+}
@@ -0,0 +1,108 @@
+package study.datajpa.repository.lock;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.OptimisticLockException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 낙관적 락 충돌 시 재시도
+ *  - 시도마다 새 트랜잭션(새 영속성 컨텍스트)에서 다시 조회하고 수정한다.
+ *  - 충돌한 트랜잭션은 롤백되고 영속성 컨텍스트도 버려야 하므로 바깥 트랜잭션 안에서는 실행할 수 없다.
+ *  - 재시도 간격은 initial-backoff부터 2배씩(최대 max-backoff), 동시에 깨어나지 않도록 50~100% 지터를 준다.
+ *  - 작업 이름별로 시도/충돌/포기 횟수를 기록한다.
+ */
+@Slf4j
+@Component
+public class OptimisticRetryTemplate {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final ConcurrentMap<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public OptimisticRetryTemplate(PlatformTransactionManager transactionManager,
+                                   @Value("${datajpa.optimistic.max-attempts:5}") int maxAttempts,
+                                   @Value("${datajpa.optimistic.initial-backoff:5ms}") Duration initialBackoff,
+                                   @Value("${datajpa.optimistic.max-backoff:200ms}") Duration maxBackoff) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("max-attempts must be at least 1: " + maxAttempts);
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    public <T> T execute(String name, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException(name + " retries in its own transactions and must not run inside a transaction");
+        }
+        Stats stat = stats.computeIfAbsent(name, key -> new Stats());
+        stat.calls.increment();
+        long backoff = initialBackoffNanos;
+        for (int attempt = 1; ; attempt++) {
+            stat.attempts.increment();
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                stat.conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    stat.exhausted.increment();
+                    log.warn("{}: optimistic lock conflict, giving up after {} attempts", name, attempt);
+                    throw e;
+                }
+                sleep(backoff);
+                backoff = Math.min(backoff * 2, maxBackoffNanos);
+            }
+        }
+    }
+
+    /**
+     * @return 작업 이름 순으로 정렬된 통계
+     */
+    public Map<String, Stats> getStats() {
+        return new TreeMap<>(stats);
+    }
+
+    private static void sleep(long nanos) {
+        long jittered = nanos / 2 + ThreadLocalRandom.current().nextLong(nanos / 2 + 1);
+        try {
+            Thread.sleep(jittered / 1_000_000, (int) (jittered % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+
+    @Getter
+    public static class Stats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+
+        /**
+         * @return 시도 중 충돌 비율
+         */
+        public double getConflictRate() {
+            long total = attempts.sum();
+            return total == 0 ? 0 : (double) conflicts.sum() / total;
+        }
+    }
+}
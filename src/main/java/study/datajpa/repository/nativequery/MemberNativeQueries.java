@@ -0,0 +1,30 @@
+package study.datajpa.repository.nativequery;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.datajpa.repository.projection.MemberProjection;
+import study.datajpa.repository.projection.MemberProjectionRow;
+
+import java.util.Map;
+
+/**
+ * 회원 native 쿼리
+ */
+@Configuration
+public class MemberNativeQueries {
+
+    /**
+     * 회원 + 팀 이름(팀이 없는 회원 포함)
+     *  - count는 유도: select count(*) from member m left join team t on ...
+     */
+    @Bean
+    public NativePageQuery<MemberProjection> memberProjectionQuery() {
+        return new NativePageQuery<>("Member.nativeProjection",
+                "select m.member_id as id, m.username, t.name as teamName " +
+                        "from member m left join team t on m.team_id = t.team_id",
+                null,
+                Map.of("id", "m.member_id", "username", "m.username", "teamName", "t.name"),
+                "id",
+                MemberProjectionRow.MAPPER);
+    }
+}
@@ -0,0 +1,47 @@
+package study.datajpa.repository.nativequery;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * native 쿼리에서 count 쿼리 유도
+ *  - 단순한 select ... from ...는 select 절만 count(*)로 바꾼다.
+ *  - distinct, group by, union 등 행 수가 바뀔 수 있는 쿼리는 서브쿼리로 감싼다.
+ */
+public final class NativeCountQueries {
+
+    private static final Pattern COMPLEX = Pattern.compile("\\b(distinct|group\\s+by|having|union|intersect|except|limit|offset|fetch)\\b");
+
+    private NativeCountQueries() {
+    }
+
+    public static String derive(String sql) {
+        String trimmed = sql.trim();
+        String lower = trimmed.toLowerCase(Locale.ROOT);
+        int from = topLevelFrom(lower);
+        if (!lower.startsWith("select ") || from < 0 || COMPLEX.matcher(lower).find()) {
+            return "select count(*) from (" + trimmed + ") count_query";
+        }
+        return "select count(*)" + trimmed.substring(from);
+    }
+
+    /**
+     * 괄호(서브쿼리, 함수) 밖의 첫 번째 from 위치
+     */
+    private static int topLevelFrom(String lower) {
+        int depth = 0;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (depth == 0 && lower.startsWith("from", i)
+                    && i > 0 && Character.isWhitespace(lower.charAt(i - 1))
+                    && i + 4 < lower.length() && Character.isWhitespace(lower.charAt(i + 4))) {
+                return i - 1;
+            }
+        }
+        return -1;
+    }
+}
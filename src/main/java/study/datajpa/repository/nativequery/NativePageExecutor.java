@@ -0,0 +1,45 @@
+package study.datajpa.repository.nativequery;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * NativePageQuery 페이징 실행
+ *  - 정렬 속성을 컬럼으로 바꾸고(허용된 속성만) 정렬이 없으면 defaultSort로 정렬한다.
+ *  - OFFSET ... FETCH NEXT ...(SQL:2008)로 페이지만 읽는다.
+ *  - 마지막 페이지 등 content로 total을 알 수 있으면 count 쿼리를 실행하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class NativePageExecutor {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public <T> Page<T> page(NativePageQuery<T> query, Pageable pageable, Object... args) {
+        StringBuilder sql = new StringBuilder(query.getSql()).append(" order by ");
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by(query.getDefaultSort());
+        boolean first = true;
+        for (Sort.Order order : sort) {
+            sql.append(first ? "" : ", ").append(query.sortColumn(order.getProperty())).append(order.isAscending() ? " asc" : " desc");
+            first = false;
+        }
+        List<Object> params = new ArrayList<>(Arrays.asList(args));
+        if (pageable.isPaged()) {
+            sql.append(" offset ? rows fetch next ? rows only");
+            params.add(pageable.getOffset());
+            params.add(pageable.getPageSize());
+        }
+        List<T> content = jdbcTemplate.query(sql.toString(), query.getRowMapper(), params.toArray());
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> jdbcTemplate.queryForObject(query.getCountSql(), Long.class, args));
+    }
+}
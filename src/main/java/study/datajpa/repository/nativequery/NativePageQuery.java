@@ -0,0 +1,45 @@
+package study.datajpa.repository.nativequery;
+
+import lombok.Getter;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.Map;
+
+/**
+ * 페이징용 native 쿼리 정의
+ *  - sql에는 ORDER BY, OFFSET을 넣지 않는다.(NativePageExecutor가 붙인다.)
+ *  - countSql이 없으면 sql에서 유도한다.(NativeCountQueries)
+ *  - sortColumns: 정렬에 쓸 수 있는 속성 -> 컬럼, defaultSort는 정렬이 없을 때 쓰는 속성
+ *  - 빈으로 등록하면 기동 시 NativeQueryValidator가 검증한다.
+ */
+@Getter
+public class NativePageQuery<T> {
+
+    private final String name;
+    private final String sql;
+    private final String countSql;
+    private final Map<String, String> sortColumns;
+    private final String defaultSort;
+    private final RowMapper<T> rowMapper;
+
+    public NativePageQuery(String name, String sql, String countSql, Map<String, String> sortColumns,
+                           String defaultSort, RowMapper<T> rowMapper) {
+        if (!sortColumns.containsKey(defaultSort)) {
+            throw new IllegalArgumentException("Default sort " + defaultSort + " is not a sortable property of " + name);
+        }
+        this.name = name;
+        this.sql = sql;
+        this.countSql = countSql != null ? countSql : NativeCountQueries.derive(sql);
+        this.sortColumns = Map.copyOf(sortColumns);
+        this.defaultSort = defaultSort;
+        this.rowMapper = rowMapper;
+    }
+
+    String sortColumn(String property) {
+        String column = sortColumns.get(property);
+        if (column == null) {
+            throw new IllegalArgumentException("Unknown sort property for " + name + ": " + property);
+        }
+        return column;
+    }
+}
@@ -0,0 +1,100 @@
+package study.datajpa.repository.nativequery;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 기동 시 native 쿼리 검증(datajpa.native-query.validate)
+ *  - Repository의 @Query(nativeQuery = true) value/countQuery와 NativePageQuery 빈의 sql/countSql을 prepare 해본다.
+ *  - 오타(coutn(*)), 없는 테이블/컬럼을 첫 호출이 아니라 기동 시점에 발견한다.
+ *  - SpEL(#{...})을 쓰는 쿼리는 건너뛴다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datajpa.native-query.validate", havingValue = "true", matchIfMissing = true)
+public class NativeQueryValidator implements SmartInitializingSingleton {
+
+    private static final Pattern PARAMETER = Pattern.compile("(?<![:\\w]):\\w+|\\?\\d+");
+
+    private final ListableBeanFactory beanFactory;
+    private final ObjectProvider<NativePageQuery<?>> pageQueries;
+    private final DataSource dataSource;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<String, String> queries = collect();
+        List<String> failures = new ArrayList<>();
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            for (Map.Entry<String, String> query : queries.entrySet()) {
+                try (PreparedStatement ignored = connection.prepareStatement(jdbcSql(query.getValue()))) {
+                    log.debug("Validated native query {}", query.getKey());
+                } catch (SQLException e) {
+                    failures.add(query.getKey() + ": " + e.getMessage());
+                }
+            }
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Invalid native queries:\n" + String.join("\n", failures));
+        }
+    }
+
+    private Map<String, String> collect() {
+        Map<String, String> queries = new LinkedHashMap<>();
+        Repositories repositories = new Repositories(beanFactory);
+        for (Class<?> domainType : repositories) {
+            repositories.getRepositoryInformation(domainType).ifPresent(information -> {
+                for (Method method : information.getRepositoryInterface().getMethods()) {
+                    Query query = method.getAnnotation(Query.class);
+                    if (query == null || !query.nativeQuery()) {
+                        continue;
+                    }
+                    String name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+                    add(queries, name, query.value());
+                    add(queries, name + "(count)", query.countQuery());
+                }
+            });
+        }
+        pageQueries.orderedStream().forEach(query -> {
+            add(queries, query.getName(), query.getSql());
+            add(queries, query.getName() + "(count)", query.getCountSql());
+        });
+        return queries;
+    }
+
+    private static void add(Map<String, String> queries, String name, String sql) {
+        if (StringUtils.hasText(sql) && !sql.contains("#{")) {
+            queries.put(name, sql);
+        }
+    }
+
+    /**
+     * :name, ?1 파라미터를 JDBC ?로 변환
+     */
+    private static String jdbcSql(String sql) {
+        return PARAMETER.matcher(sql).replaceAll("?");
+    }
+}
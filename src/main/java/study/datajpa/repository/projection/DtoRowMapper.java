@@ -0,0 +1,81 @@
+package study.datajpa.repository.projection;
+
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * JDBC 결과 행 -> DTO 생성자 호출
+ *  - SELECT 컬럼 순서대로 생성자 파라미터에 넘긴다.(컬럼 수와 파라미터 수가 같은 public 생성자)
+ *  - 엔티티, 프록시, 영속성 컨텍스트를 거치지 않는다.
+ *  - 생성자 MethodHandle은 (DTO 타입, 컬럼 수)마다 한번만 만든다.
+ */
+public final class DtoRowMapper<T> implements RowMapper<T> {
+
+    private static final ConcurrentMap<List<Object>, DtoRowMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+    private static final MethodType SPREAD = MethodType.methodType(Object.class, Object[].class);
+
+    private final MethodHandle constructor;
+    private final Class<?>[] parameterTypes;
+
+    private DtoRowMapper(Constructor<T> constructor) {
+        this.parameterTypes = constructor.getParameterTypes();
+        try {
+            this.constructor = MethodHandles.publicLookup()
+                    .unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, parameterTypes.length)
+                    .asType(SPREAD);
+        } catch (IllegalAccessException e) {
+            throw new IllegalArgumentException("DTO constructor is not accessible: " + constructor, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> DtoRowMapper<T> of(Class<T> type, int columns) {
+        return (DtoRowMapper<T>) MAPPERS.computeIfAbsent(List.of(type, columns),
+                key -> new DtoRowMapper<>(findConstructor(type, columns)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Object[] args = new Object[parameterTypes.length];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = JdbcUtils.getResultSetValue(rs, i + 1, parameterTypes[i]);
+        }
+        try {
+            return (T) (Object) constructor.invokeExact(args);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to create DTO from row " + rowNum, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Constructor<T> findConstructor(Class<T> type, int columns) {
+        Constructor<T> found = null;
+        for (Constructor<?> constructor : type.getConstructors()) {
+            if (constructor.getParameterCount() != columns) {
+                continue;
+            }
+            if (found != null) {
+                throw new IllegalArgumentException("Ambiguous " + columns + "-argument constructors in " + type.getName());
+            }
+            found = (Constructor<T>) constructor;
+        }
+        if (found == null) {
+            throw new IllegalArgumentException("No public " + columns + "-argument constructor in " + type.getName());
+        }
+        return found;
+    }
+}
@@ -0,0 +1,51 @@
+package study.datajpa.repository.projection;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 엔티티 매핑에서 테이블/컬럼 이름 조회
+ *  - JDBC로 직접 조회할 때 컬럼 이름을 하드코딩하지 않고 매핑(@Column, 네이밍 전략)을 따른다.
+ *  - 단일 컬럼 기본 속성과 id만 지원한다.(연관관계 제외)
+ */
+public final class EntityColumns {
+
+    private final String table;
+    private final Map<String, String> columns;
+
+    private EntityColumns(String table, Map<String, String> columns) {
+        this.table = table;
+        this.columns = columns;
+    }
+
+    public static EntityColumns of(EntityManagerFactory emf, Class<?> entityType) {
+        AbstractEntityPersister persister = (AbstractEntityPersister) emf.unwrap(SessionFactoryImplementor.class)
+                .getMetamodel()
+                .entityPersister(entityType);
+        Map<String, String> columns = new HashMap<>();
+        columns.put(persister.getIdentifierPropertyName(), persister.getIdentifierColumnNames()[0]);
+        for (String property : persister.getPropertyNames()) {
+            String[] names = persister.getPropertyColumnNames(property);
+            if (names.length == 1 && !persister.getPropertyType(property).isAssociationType()) {
+                columns.put(property, names[0]);
+            }
+        }
+        return new EntityColumns(persister.getTableName(), Map.copyOf(columns));
+    }
+
+    public String table() {
+        return table;
+    }
+
+    public String column(String property) {
+        String column = columns.get(property);
+        if (column == null) {
+            throw new IllegalArgumentException("No single column mapped for property: " + property);
+        }
+        return column;
+    }
+}
@@ -0,0 +1,27 @@
+package study.datajpa.repository.projection;
+
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.jdbc.core.RowMapper;
+
+/**
+ * MemberProjection 구현(프록시 없이 컬럼 순서로 바로 생성)
+ *  - SELECT 순서: id, username, teamName
+ */
+@Getter
+@ToString
+public class MemberProjectionRow implements MemberProjection {
+
+    public static final RowMapper<MemberProjection> MAPPER = (rs, rowNum) ->
+            new MemberProjectionRow(rs.getLong(1), rs.getString(2), rs.getString(3));
+
+    private final Long id;
+    private final String username;
+    private final String teamName;
+
+    public MemberProjectionRow(Long id, String username, String teamName) {
+        this.id = id;
+        this.username = username;
+        this.teamName = teamName;
+    }
+}
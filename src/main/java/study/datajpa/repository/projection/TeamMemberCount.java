@@ -0,0 +1,10 @@
+package study.datajpa.repository.projection;
+
+/**
+ * 팀 + 회원 수(TeamEntity.memberCount 컬럼만 조회, members 컬렉션/count 쿼리 없음)
+ */
+public interface TeamMemberCount {
+    Long getId();
+    String getName();
+    long getMemberCount();
+}
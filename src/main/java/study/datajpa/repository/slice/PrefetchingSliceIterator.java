@@ -0,0 +1,173 @@
+package study.datajpa.repository.slice;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Slice 페이지를 미리 읽는 Iterator
+ *  - 페이지 하나를 조회하는 작업을 Executor(SlicePrefetchExecutor)에 제출하고, 조회가 끝나면 자리가 있을 때 다음 페이지 조회를 이어서 제출한다.
+ *  - 조회 중 + 큐에 있는 페이지는 최대 lookahead 개라 메모리에는 lookahead + 1 페이지(소비 중 포함)만 있다.
+ *  - 대기하는 동안 스레드를 붙잡지 않으므로 다 쓰지 않고 버려도 남는 스레드가 없다.(close()는 남은 조회를 취소)
+ *  - 페이지 조회는 호출 스레드의 트랜잭션 밖에서 실행되므로 반환되는 엔티티는 준영속 상태다.(지연 로딩 불가)
+ *  - 조회 중 예외는 해당 페이지를 꺼낼 때 다시 던진다.
+ */
+public class PrefetchingSliceIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final UnaryOperator<Slice<T>> loader;
+    private final Executor executor;
+    private final int lookahead;
+    private final BlockingQueue<Object> pages;
+    private Iterator<T> current = Collections.emptyIterator();
+    private boolean finished;
+
+    // 아래는 조회 작업과 공유(this로 동기화)
+    private Slice<T> last;
+    private int buffered;
+    private boolean loading;
+    private boolean exhausted;
+    private volatile boolean closed;
+
+    /**
+     * @param loader null이면 첫 페이지, 아니면 직전 페이지(hasNext) 다음 페이지를 조회(Keyset이면 직전 페이지의 마지막 키 사용)
+     */
+    public PrefetchingSliceIterator(UnaryOperator<Slice<T>> loader, int lookahead, Executor executor) {
+        if (lookahead < 1) {
+            throw new IllegalArgumentException("lookahead must be at least 1: " + lookahead);
+        }
+        this.loader = loader;
+        this.executor = executor;
+        this.lookahead = lookahead;
+        this.pages = new ArrayBlockingQueue<>(lookahead);
+        schedule();
+    }
+
+    /**
+     * Offset 페이징(Pageable.next) 순서로 조회
+     */
+    public PrefetchingSliceIterator(Function<Pageable, Slice<T>> loader, Pageable first, int lookahead, Executor executor) {
+        this(previous -> loader.apply(previous == null ? first : previous.nextPageable()), lookahead, executor);
+    }
+
+    /**
+     * 다 쓴 Stream은 close 해야 남은 조회가 취소된다.(try-with-resources)
+     */
+    public static <T> Stream<T> stream(UnaryOperator<Slice<T>> loader, int lookahead, Executor executor) {
+        PrefetchingSliceIterator<T> iterator = new PrefetchingSliceIterator<>(loader, lookahead, executor);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterator::close);
+    }
+
+    private synchronized void schedule() {
+        if (closed || loading || exhausted || buffered >= lookahead) {
+            return;
+        }
+        loading = true;
+        buffered++;
+        Slice<T> previous = last;
+        try {
+            executor.execute(() -> load(previous));
+        } catch (RejectedExecutionException e) {
+            loading = false;
+            exhausted = true;
+            pages.add(e);
+        }
+    }
+
+    private void load(Slice<T> previous) {
+        Object page;
+        boolean more;
+        try {
+            Slice<T> slice = loader.apply(previous);
+            page = slice;
+            more = slice.hasNext();
+        } catch (RuntimeException | Error e) {
+            page = e;
+            more = false;
+        }
+        synchronized (this) {
+            loading = false;
+            if (closed) {
+                return;
+            }
+            if (page instanceof Slice) {
+                @SuppressWarnings("unchecked")
+                Slice<T> slice = (Slice<T>) page;
+                last = slice;
+            }
+            exhausted = !more;
+            pages.add(page);
+        }
+        schedule();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (finished) {
+                return false;
+            }
+            if (closed) {
+                throw new IllegalStateException("Iterator is closed");
+            }
+            Object page = take();
+            synchronized (this) {
+                buffered--;
+            }
+            schedule();
+            if (page instanceof RuntimeException) {
+                close();
+                throw (RuntimeException) page;
+            }
+            if (page instanceof Error) {
+                close();
+                throw (Error) page;
+            }
+            @SuppressWarnings("unchecked")
+            Slice<T> slice = (Slice<T>) page;
+            current = slice.iterator();
+            finished = !slice.hasNext();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    private Object take() {
+        try {
+            return pages.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new IllegalStateException("Interrupted while waiting for the next slice", e);
+        }
+    }
+
+    /**
+     * 조회 중인 페이지는 끝까지 조회한 뒤 버린다.(JDBC 호출은 interrupt 하지 않는다)
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        pages.clear();
+    }
+}
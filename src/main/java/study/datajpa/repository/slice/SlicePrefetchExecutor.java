@@ -0,0 +1,66 @@
+package study.datajpa.repository.slice;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PrefetchingSliceIterator가 페이지를 미리 조회하는 스레드 풀
+ *  - 조회 스레드마다 커넥션을 하나씩 쓰므로 min(CPU 수, 커넥션 풀 크기 / 2)로 제한해 요청 스레드 몫의 커넥션을 남긴다.
+ *  - 스레드가 모두 조회 중이면 다음 조회는 대기열에서 기다린다.(iterator마다 동시에 한 페이지만 조회)
+ *  - 애플리케이션 종료 시 함께 종료한다.
+ */
+@Slf4j
+@Component
+public class SlicePrefetchExecutor implements Executor {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    private final ThreadPoolExecutor executor;
+
+    public SlicePrefetchExecutor(DataSource dataSource,
+                                 @Value("${datajpa.slice.prefetch-threads:0}") int threads) {
+        int size = threads > 0 ? threads
+                : Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), poolSize(dataSource) / 2));
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("slice-prefetch-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(size, size, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+        this.executor.allowCoreThreadTimeOut(true);
+        log.info("Slice prefetch executor: {} threads", size);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    /**
+     * 종료 후 제출된 조회는 거절되어 iterator에서 RejectedExecutionException으로 던진다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.debug("Could not unwrap HikariDataSource", e);
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+}
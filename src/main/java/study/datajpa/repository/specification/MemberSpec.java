@@ -1,30 +1,73 @@
 package study.datajpa.repository.specification;
 
-import org.springframework.data.jpa.domain.Specification;
-import org.springframework.util.StringUtils;
-import study.datajpa.entity.MemberEntity;
 import study.datajpa.entity.TeamEntity;
 
 import javax.persistence.criteria.*;
+import java.time.LocalDateTime;
 
+/**
+ * 회원 검색 조건
+ *  - Specification(JpaSpecificationExecutor)으로도, MemberSpecCompiler(JPQL 캐시)로도 사용할 수 있다.
+ *  - 값이 null(빈 문자열)인 조건은 빠진다.
+ */
 public class MemberSpec {
 
-    public static Specification<MemberEntity> teamName(final String teamName) {
-        return (root, query, criteriaBuilder) -> {
-            if (StringUtils.isEmpty(teamName)) {
-                return null;
-            }
-            Join<Object, TeamEntity> t = root.join("team", JoinType.INNER);// 회원과 조인
-            return criteriaBuilder.equal(t.get("name"), teamName);
-        };
+    private static final char LIKE_ESCAPE = '\\';
+
+    public static MemberSpecTerm teamName(final String teamName) {
+        return new MemberSpecTerm("teamName", teamName, "t.name = :teamName", true,
+                (root, query, criteriaBuilder) -> {
+                    Join<Object, TeamEntity> t = root.join("team", JoinType.INNER);// 회원과 조인
+                    return criteriaBuilder.equal(t.get("name"), teamName);
+                });
+    }
+
+    public static MemberSpecTerm username(final String username) {
+        return new MemberSpecTerm("username", username, "m.username = :username", false,
+                (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("username"), username));
+    }
+
+    /**
+     * username 접두어 검색(like 'prefix%', %와 _는 문자 그대로 검색)
+     *  - 앞부분이 고정된 like라 username 인덱스를 탈 수 있다.
+     */
+    public static MemberSpecTerm usernameStartsWith(final String prefix) {
+        String pattern = prefix == null || prefix.isEmpty() ? null : escapeLike(prefix) + "%";
+        return new MemberSpecTerm("usernamePrefix", pattern, "m.username like :usernamePrefix escape '" + LIKE_ESCAPE + "'", false,
+                (root, query, criteriaBuilder) -> criteriaBuilder.like(root.get("username"), pattern, LIKE_ESCAPE));
+    }
+
+    public static MemberSpecTerm ageGoe(final Integer age) {
+        return new MemberSpecTerm("ageGoe", age, "m.age >= :ageGoe", false,
+                (root, query, criteriaBuilder) -> criteriaBuilder.greaterThanOrEqualTo(root.get("age"), age));
+    }
+
+    public static MemberSpecTerm ageLoe(final Integer age) {
+        return new MemberSpecTerm("ageLoe", age, "m.age <= :ageLoe", false,
+                (root, query, criteriaBuilder) -> criteriaBuilder.lessThanOrEqualTo(root.get("age"), age));
+    }
+
+    /**
+     * 생성일 범위 [from, to)
+     */
+    public static MemberSpecTerm createdFrom(final LocalDateTime from) {
+        return new MemberSpecTerm("createdFrom", from, "m.createdDate >= :createdFrom", false,
+                (root, query, criteriaBuilder) -> criteriaBuilder.greaterThanOrEqualTo(root.get("createdDate"), from));
+    }
+
+    public static MemberSpecTerm createdTo(final LocalDateTime to) {
+        return new MemberSpecTerm("createdTo", to, "m.createdDate < :createdTo", false,
+                (root, query, criteriaBuilder) -> criteriaBuilder.lessThan(root.get("createdDate"), to));
     }
 
-    public static Specification<MemberEntity> username(final String username) {
-        return ((root, query, criteriaBuilder) -> {
-            if (StringUtils.isEmpty(username)) {
-                return null;
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 4);
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
             }
-            return criteriaBuilder.equal(root.get("username"), username);
-        });
+            escaped.append(c);
+        }
+        return escaped.toString();
     }
 }
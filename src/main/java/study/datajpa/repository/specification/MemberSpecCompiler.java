@@ -0,0 +1,120 @@
+package study.datajpa.repository.specification;
+
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * MemberSpecTerm 조합 -> JPQL 컴파일
+ *  - 비어있지 않은 조건의 key를 정렬한 shape key(예: "teamName&username")마다 JPQL을 한번만 만든다.
+ *  - 같은 JPQL 문자열은 Hibernate 쿼리 플랜 캐시에서 SQL 변환 결과도 재사용된다.
+ *    (Criteria는 호출마다 트리를 만들고 JPQL을 다시 렌더링한다.)
+ *  - teamName 조건이 비어있으면 팀 조인을 하지 않는다.
+ */
+@Component
+public class MemberSpecCompiler {
+
+    private static final String SELECT = "select m from MemberEntity m";
+    private static final String COUNT = "select count(m) from MemberEntity m";
+
+    private final ConcurrentMap<String, CompiledSpec> compiled = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder compileNanos = new LongAdder();
+
+    public CompiledSpec compile(List<MemberSpecTerm> terms) {
+        List<MemberSpecTerm> present = terms.stream()
+                .filter(term -> !term.isEmpty())
+                .sorted(Comparator.comparing(MemberSpecTerm::getKey))
+                .collect(Collectors.toList());
+        StringBuilder shape = new StringBuilder();
+        String previous = null;
+        for (MemberSpecTerm term : present) {
+            if (term.getKey().equals(previous)) {
+                throw new IllegalArgumentException("Duplicate member spec term: " + term.getKey());
+            }
+            if (previous != null) {
+                shape.append('&');
+            }
+            shape.append(term.getKey());
+            previous = term.getKey();
+        }
+        String shapeKey = shape.toString();
+
+        CompiledSpec spec = compiled.get(shapeKey);
+        if (spec != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            long start = System.nanoTime();
+            spec = compiled.computeIfAbsent(shapeKey, key -> render(key, present));
+            compileNanos.add(System.nanoTime() - start);
+        }
+        return spec.bind(present);
+    }
+
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), compileNanos.sum(), compiled.size());
+    }
+
+    private static CompiledSpec render(String shapeKey, List<MemberSpecTerm> terms) {
+        boolean teamJoin = false;
+        List<String> conditions = new ArrayList<>(terms.size());
+        for (MemberSpecTerm term : terms) {
+            conditions.add(term.getJpql());
+            teamJoin |= term.isTeamJoin();
+        }
+        String from = teamJoin ? " join m.team t" : "";
+        String where = conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+        return new CompiledSpec(shapeKey, SELECT + from + where, COUNT + from + where, List.of());
+    }
+
+    /**
+     * shape별 JPQL과 이번 호출의 파라미터
+     */
+    @Getter
+    public static class CompiledSpec {
+        private final String shapeKey;
+        private final String jpql;
+        private final String countJpql;
+        private final List<MemberSpecTerm> parameters;
+
+        CompiledSpec(String shapeKey, String jpql, String countJpql, List<MemberSpecTerm> parameters) {
+            this.shapeKey = shapeKey;
+            this.jpql = jpql;
+            this.countJpql = countJpql;
+            this.parameters = parameters;
+        }
+
+        CompiledSpec bind(List<MemberSpecTerm> parameters) {
+            return new CompiledSpec(shapeKey, jpql, countJpql, parameters);
+        }
+    }
+
+    @Getter
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long compileNanos;
+        private final int shapes;
+
+        Stats(long hits, long misses, long compileNanos, int shapes) {
+            this.hits = hits;
+            this.misses = misses;
+            this.compileNanos = compileNanos;
+            this.shapes = shapes;
+        }
+
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+}
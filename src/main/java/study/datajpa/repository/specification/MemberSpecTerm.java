@@ -0,0 +1,43 @@
+package study.datajpa.repository.specification;
+
+import lombok.Getter;
+import org.springframework.data.jpa.domain.Specification;
+import study.datajpa.entity.MemberEntity;
+
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+/**
+ * MemberSpec 조건 하나
+ *  - Specification으로 그대로 쓸 수 있고, MemberSpecCompiler는 key/jpql로 쿼리를 만든다.
+ *  - value가 비어있으면(null, "") 조건에서 빠진다.
+ *  - jpql은 회원 별칭 m, 팀 별칭 t를 사용하고 파라미터 이름은 key와 같다.
+ */
+@Getter
+public class MemberSpecTerm implements Specification<MemberEntity> {
+
+    private final String key;
+    private final Object value;
+    private final String jpql;
+    private final boolean teamJoin;
+    private final Specification<MemberEntity> specification;
+
+    MemberSpecTerm(String key, Object value, String jpql, boolean teamJoin, Specification<MemberEntity> specification) {
+        this.key = key;
+        this.value = value;
+        this.jpql = jpql;
+        this.teamJoin = teamJoin;
+        this.specification = specification;
+    }
+
+    public boolean isEmpty() {
+        return value == null || (value instanceof String && ((String) value).isEmpty());
+    }
+
+    @Override
+    public Predicate toPredicate(Root<MemberEntity> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
+        return isEmpty() ? null : specification.toPredicate(root, query, criteriaBuilder);
+    }
+}
@@ -0,0 +1,306 @@
+package study.datajpa.repository.writebehind;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.lock.OptimisticRetryTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * 회원 변경 write-behind 버퍼(datajpa.write-behind.enabled)
+ *  - 같은 회원에 대한 변경을 window 동안 모아 한 트랜잭션에서 차례로 적용한다.
+ *    -> 회원마다 UPDATE 한번, lastModifiedDate/lastModifiedBy 갱신도 한번
+ *  - 버퍼에는 최대 max-pending 명의 회원만 담는다. 가득 차면 바로 flush를 요청하고 offer-timeout 동안 자리를 기다린다.
+ *  - 변경(mutation)은 flush 시 새로 조회한 엔티티에 적용하므로 현재 값에 상대적인 변경(나이 + 1 등)이어야 한다.
+ *    version 충돌 시 OptimisticRetryTemplate이 다시 조회해서 다시 적용한다.
+ *  - 내구성은 WriteBehindDurability 참고, 정상 종료 시 남은 변경을 flush 한다.
+ *  - repository.save나 변경 감지로 수정하면 버퍼를 거치지 않는다. 합치려는 변경은 modify()로 요청해야 한다.
+ *    (예: MemberWriteBehindController)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "datajpa.write-behind.enabled", havingValue = "true")
+public class MemberWriteBehindBuffer {
+
+    private final MemberRepository memberRepository;
+    private final OptimisticRetryTemplate retryTemplate;
+    private final TransactionTemplate writeThrough;
+    private final WriteBehindDurability durability;
+    private final Duration offerTimeout;
+    private final Duration commitTimeout;
+    private final int batchSize;
+
+    private final ConcurrentMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final Semaphore capacity;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // 변경 추가(read)와 close(write)를 배타적으로 실행해 마지막 flush 이후에 들어오는 변경이 없게 한다.
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService scheduler;
+    private volatile boolean closed;
+
+    private final LongAdder modifications = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+
+    /**
+     * @param window        자동 flush 주기(0이면 자동 flush 없음, GROUP_COMMIT은 0보다 커야 한다)
+     * @param commitTimeout GROUP_COMMIT에서 커밋을 기다리는 최대 시간
+     */
+    public MemberWriteBehindBuffer(PlatformTransactionManager transactionManager,
+                                   MemberRepository memberRepository,
+                                   OptimisticRetryTemplate retryTemplate,
+                                   @Value("${datajpa.write-behind.durability:buffered}") WriteBehindDurability durability,
+                                   @Value("${datajpa.write-behind.window:200ms}") Duration window,
+                                   @Value("${datajpa.write-behind.max-pending:10000}") int maxPending,
+                                   @Value("${datajpa.write-behind.offer-timeout:100ms}") Duration offerTimeout,
+                                   @Value("${datajpa.write-behind.commit-timeout:5s}") Duration commitTimeout,
+                                   @Value("${datajpa.write-behind.batch-size:100}") int batchSize) {
+        if (durability == WriteBehindDurability.GROUP_COMMIT && window.isZero()) {
+            // 자동 flush가 없으면 기다리는 변경을 반영할 스레드가 없다.
+            throw new IllegalArgumentException("GROUP_COMMIT requires a non-zero window");
+        }
+        this.memberRepository = memberRepository;
+        this.retryTemplate = retryTemplate;
+        this.writeThrough = new TransactionTemplate(transactionManager);
+        this.durability = durability;
+        this.offerTimeout = offerTimeout;
+        this.commitTimeout = commitTimeout;
+        this.batchSize = batchSize;
+        this.capacity = new Semaphore(maxPending);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "member-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!window.isZero()) {
+            scheduler.scheduleWithFixedDelay(this::flushQuietly, window.toMillis(), window.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 회원 변경 요청
+     *
+     * @return 변경이 커밋되면 완료(회원이 없거나 반영에 실패하면 예외로 완료)
+     * @throws IllegalStateException 닫힌 버퍼, 가득 찬 버퍼, GROUP_COMMIT에서 commit-timeout 안에 커밋되지 않은 경우
+     *                               (마지막 경우 변경은 버퍼에 남아 이후 flush에서 반영될 수 있다)
+     */
+    public CompletableFuture<Void> modify(Long memberId, Consumer<MemberEntity> mutation) {
+        CompletableFuture<Void> done;
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Write-behind buffer is closed");
+            }
+            modifications.increment();
+            if (durability == WriteBehindDurability.WRITE_THROUGH) {
+                writeThrough.executeWithoutResult(status -> mutation.accept(memberRepository.findById(memberId)
+                        .orElseThrow(() -> notFound(memberId))));
+                updates.increment();
+                return CompletableFuture.completedFuture(null);
+            }
+            done = enqueue(memberId, mutation);
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        if (durability == WriteBehindDurability.GROUP_COMMIT) {
+            awaitCommit(done);
+        }
+        return done;
+    }
+
+    private void awaitCommit(CompletableFuture<Void> done) {
+        try {
+            done.get(commitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Group commit not confirmed within " + commitTimeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for group commit", e);
+        }
+    }
+
+    private CompletableFuture<Void> enqueue(Long memberId, Consumer<MemberEntity> mutation) {
+        boolean permit = false;
+        while (true) {
+            if (!permit && !pending.containsKey(memberId)) {
+                permit = acquire();
+            }
+            boolean hasPermit = permit;
+            boolean[] created = {false};
+            Pending target = pending.compute(memberId, (id, current) -> {
+                if (current == null) {
+                    if (!hasPermit) {
+                        return null;
+                    }
+                    created[0] = true;
+                    current = new Pending();
+                }
+                current.mutations.add(mutation);
+                return current;
+            });
+            if (target == null) {
+                // 확인 후 flush로 빠져나간 경우 자리를 얻어 다시 시도
+                continue;
+            }
+            if (permit && !created[0]) {
+                capacity.release();
+            }
+            return target.done;
+        }
+    }
+
+    private boolean acquire() {
+        if (capacity.tryAcquire()) {
+            return true;
+        }
+        scheduler.execute(this::flushQuietly);
+        try {
+            if (capacity.tryAcquire(offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new IllegalStateException("Write-behind buffer is full, no slot within " + offerTimeout);
+    }
+
+    /**
+     * 지금까지 쌓인 변경을 batch-size 명씩 트랜잭션으로 반영(트랜잭션 밖에서 호출)
+     *
+     * @return 반영을 시도한 회원 수
+     */
+    public int flush() {
+        flushLock.lock();
+        Map<Long, Pending> drained = new LinkedHashMap<>();
+        try {
+            for (Long id : new ArrayList<>(pending.keySet())) {
+                Pending removed = pending.remove(id);
+                if (removed != null) {
+                    drained.put(id, removed);
+                }
+            }
+            List<Long> ids = new ArrayList<>(drained.keySet());
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                write(ids.subList(from, Math.min(from + batchSize, ids.size())), drained);
+            }
+            return drained.size();
+        } finally {
+            // 반영 중인 회원도 자리를 차지한다.(버퍼 + 반영 중 <= max-pending)
+            capacity.release(drained.size());
+            flushLock.unlock();
+        }
+    }
+
+    private void write(List<Long> ids, Map<Long, Pending> drained) {
+        Set<Long> applied;
+        try {
+            // 재시도마다 새로 모은다.(이전 시도에서 적용했다가 롤백된 회원이 다음 시도 전에 삭제될 수 있다)
+            applied = retryTemplate.execute("Member.writeBehind", () -> {
+                Set<Long> attempt = new HashSet<>();
+                for (MemberEntity member : memberRepository.findAllById(ids)) {
+                    drained.get(member.getId()).mutations.forEach(mutation -> mutation.accept(member));
+                    attempt.add(member.getId());
+                }
+                return attempt;
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to write {} buffered members", ids.size(), e);
+            ids.forEach(id -> drained.get(id).done.completeExceptionally(e));
+            return;
+        }
+        for (Long id : ids) {
+            Pending written = drained.get(id);
+            // 커밋된 시도의 findAllById에서 빠진 회원(삭제됨)은 적용되지 않았다.
+            if (applied.contains(id)) {
+                updates.increment();
+                written.done.complete(null);
+            } else {
+                written.done.completeExceptionally(notFound(id));
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Write-behind flush failed", e);
+        }
+    }
+
+    /**
+     * 자동 flush를 멈추고 남은 변경을 반영
+     */
+    @PreDestroy
+    public void shutdown() {
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int remaining = flush();
+        if (remaining > 0) {
+            log.info("Flushed {} buffered members on shutdown", remaining);
+        }
+    }
+
+    public int getPending() {
+        return pending.size();
+    }
+
+    public long getModifications() {
+        return modifications.sum();
+    }
+
+    /**
+     * @return 실제로 반영한 회원 UPDATE 수(modifications - updates 만큼 합쳐졌다)
+     */
+    public long getUpdates() {
+        return updates.sum();
+    }
+
+    private static EmptyResultDataAccessException notFound(Long memberId) {
+        return new EmptyResultDataAccessException("Member " + memberId + " not found", 1);
+    }
+
+    private static final class Pending {
+        final List<Consumer<MemberEntity>> mutations = new ArrayList<>();
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+    }
+}
@@ -0,0 +1,11 @@
+package study.datajpa.repository.writebehind;
+
+/**
+ * MemberWriteBehindBuffer의 내구성 수준
+ *  - WRITE_THROUGH: 버퍼 없이 바로 반영(호출자 트랜잭션이 있으면 참여), 합치지 않는다.
+ *  - BUFFERED: 버퍼에 넣고 바로 반환. 반영 전(최대 window)에 프로세스가 죽으면 변경이 사라진다.(정상 종료 시에는 flush)
+ *  - GROUP_COMMIT: 버퍼에 넣고 그 변경이 커밋될 때까지 기다린다. 같은 window의 변경을 합쳐 커밋하므로 반환 후에는 사라지지 않는다.
+ */
+public enum WriteBehindDurability {
+    WRITE_THROUGH, BUFFERED, GROUP_COMMIT
+}
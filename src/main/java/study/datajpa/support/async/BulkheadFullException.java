@@ -0,0 +1,14 @@
+package study.datajpa.support.async;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 동시 실행 한도(bulkhead)나 대기열이 가득 차서 실행하지 못함
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BulkheadFullException extends RuntimeException {
+    public BulkheadFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,149 @@
+package study.datajpa.support.async;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 요청 스레드 대신 Repository 호출을 실행하는 전용 Executor(datajpa.async.enabled=true)
+ *  - virtual thread를 지원하는 JDK(21+)면 작업마다 virtual thread, 아니면 크기가 고정된 스레드 풀을 사용한다.
+ *  - 동시 실행 수는 커넥션 풀 크기로 제한한다.(bulkhead) 커넥션보다 많이 실행해도 커넥션 대기만 늘어난다.
+ *  - 제출할 때 bulkhead-wait 동안 자리가 나지 않거나 대기열이 가득 차면 BulkheadFullException(503)
+ *  - 제한 시간이 지나면 작업을 인터럽트하고 RepositoryTimeoutException(503)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "datajpa.async.enabled", havingValue = "true")
+public class RepositoryExecutor {
+
+    private static final int DEFAULT_CONCURRENCY = 10;
+
+    private final ExecutorService executor;
+    private final Semaphore bulkhead;
+    private final long bulkheadWaitNanos;
+    private final Duration timeout;
+
+    public RepositoryExecutor(DataSource dataSource,
+                              @Value("${datajpa.async.virtual-threads:true}") boolean virtualThreads,
+                              @Value("${datajpa.async.max-concurrency:0}") int maxConcurrency,
+                              @Value("${datajpa.async.queue-capacity:200}") int queueCapacity,
+                              @Value("${datajpa.async.bulkhead-wait:100ms}") Duration bulkheadWait,
+                              @Value("${datajpa.async.timeout:3s}") Duration timeout) {
+        int concurrency = maxConcurrency > 0 ? maxConcurrency : poolSize(dataSource);
+        ExecutorService virtual = virtualThreads ? newVirtualThreadExecutor() : null;
+        this.executor = virtual != null ? virtual : newBoundedExecutor(concurrency, queueCapacity);
+        this.bulkhead = new Semaphore(concurrency);
+        this.bulkheadWaitNanos = bulkheadWait.toNanos();
+        this.timeout = timeout;
+        log.info("Repository executor: {} threads, {} concurrent calls", virtual != null ? "virtual" : "platform", concurrency);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return submit(task, null);
+    }
+
+    /**
+     * @param requestTimeout 요청별 제한 시간, 설정값(datajpa.async.timeout)보다 길게 줄 수는 없다.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task, Duration requestTimeout) {
+        Duration limit = requestTimeout != null && requestTimeout.compareTo(timeout) < 0 ? requestTimeout : timeout;
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (!acquire()) {
+            result.completeExceptionally(new BulkheadFullException("No free repository slot within " + Duration.ofNanos(bulkheadWaitNanos).toMillis() + "ms"));
+            return result;
+        }
+        // 작업 시작과 타임아웃 중 먼저 차지한 쪽이 permit을 반납한다.
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<?> running;
+        try {
+            running = executor.submit(() -> run(task, result, claimed));
+        } catch (RejectedExecutionException e) {
+            bulkhead.release();
+            result.completeExceptionally(new BulkheadFullException("Repository executor queue is full"));
+            return result;
+        }
+        CompletableFuture.delayedExecutor(limit.toNanos(), TimeUnit.NANOSECONDS).execute(() -> {
+            if (result.completeExceptionally(new RepositoryTimeoutException("Repository call timed out after " + limit.toMillis() + "ms"))) {
+                if (claimed.compareAndSet(false, true)) {
+                    bulkhead.release();
+                }
+                running.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private boolean acquire() {
+        try {
+            return bulkhead.tryAcquire(bulkheadWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private <T> void run(Supplier<T> task, CompletableFuture<T> result, AtomicBoolean claimed) {
+        if (!claimed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            result.complete(task.get());
+        } catch (RuntimeException | Error e) {
+            result.completeExceptionally(e);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            log.debug("Could not unwrap HikariDataSource", e);
+        }
+        return DEFAULT_CONCURRENCY;
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor()(JDK 21+)를 리플렉션으로 호출, 없으면 null
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newBoundedExecutor(int threads, int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("repository-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+}
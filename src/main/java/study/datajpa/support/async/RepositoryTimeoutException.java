@@ -0,0 +1,14 @@
+package study.datajpa.support.async;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 요청 제한 시간 안에 Repository 호출이 끝나지 않음
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class RepositoryTimeoutException extends RuntimeException {
+    public RepositoryTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,53 @@
+package study.datajpa.support.audit;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 감사(audit) 시각
+ *  - 엔티티마다 LocalDateTime.now()를 호출하지 않고 스레드별 스냅샷을 공유한다.
+ *  - 스냅샷은 flush 전후와 트랜잭션 종료 시 AuditFlushInterceptor가 초기화한다.
+ *    (같은 flush에서 저장/수정되는 엔티티는 모두 같은 시각을 갖는다.)
+ *  - flush 없이 오래 머무는 경우를 위해 maxAge가 지난 스냅샷은 다시 읽는다.(0이면 매번 읽는다.)
+ *  - JpaBaseEntity의 콜백처럼 빈을 주입받을 수 없는 곳에서도 쓸 수 있도록 static으로 제공한다.
+ */
+public final class AuditClock {
+
+    private static final ThreadLocal<Snapshot> SNAPSHOT = new ThreadLocal<>();
+
+    private static volatile Clock clock = Clock.systemDefaultZone();
+    private static volatile long maxAgeNanos = Duration.ofSeconds(1).toNanos();
+
+    private AuditClock() {
+    }
+
+    public static LocalDateTime now() {
+        long nanos = System.nanoTime();
+        Snapshot snapshot = SNAPSHOT.get();
+        if (snapshot == null || nanos - snapshot.takenAt >= maxAgeNanos) {
+            snapshot = new Snapshot(LocalDateTime.now(clock), nanos);
+            SNAPSHOT.set(snapshot);
+        }
+        return snapshot.time;
+    }
+
+    public static void reset() {
+        SNAPSHOT.remove();
+    }
+
+    static void configure(Clock clock, Duration maxAge) {
+        AuditClock.clock = clock;
+        AuditClock.maxAgeNanos = maxAge.toNanos();
+    }
+
+    private static final class Snapshot {
+        private final LocalDateTime time;
+        private final long takenAt;
+
+        private Snapshot(LocalDateTime time, long takenAt) {
+            this.time = time;
+            this.takenAt = takenAt;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package study.datajpa.support.audit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.auditing.DateTimeProvider;
+import org.springframework.data.domain.AuditorAware;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 감사(audit) 설정(datajpa.audit.mode)
+ *  - fast(기본): 트랜잭션 단위 작성자 + ThreadLocalRandom UUID + flush 단위 시각 스냅샷
+ *  - legacy: 엔티티마다 UUID.randomUUID(), LocalDateTime.now() (비교용)
+ */
+@Configuration
+public class AuditConfig {
+
+    @Configuration
+    @ConditionalOnProperty(name = "datajpa.audit.mode", havingValue = "fast", matchIfMissing = true)
+    static class FastAuditConfig {
+
+        FastAuditConfig(@Value("${datajpa.audit.max-snapshot-age:1s}") Duration maxSnapshotAge) {
+            AuditClock.configure(Clock.systemDefaultZone(), maxSnapshotAge);
+        }
+
+        @Bean
+        public AuditorAware<String> auditorProvider() {
+            return new TransactionScopedAuditorAware(() -> FastUuid.randomUuid().toString());
+        }
+
+        @Bean
+        public DateTimeProvider auditDateTimeProvider() {
+            return () -> Optional.of(AuditClock.now());
+        }
+
+        @Bean
+        public HibernatePropertiesCustomizer auditFlushInterceptor() {
+            return properties -> properties.put("hibernate.session_factory.interceptor", new AuditFlushInterceptor());
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "datajpa.audit.mode", havingValue = "legacy")
+    static class LegacyAuditConfig {
+
+        LegacyAuditConfig() {
+            AuditClock.configure(Clock.systemDefaultZone(), Duration.ZERO);
+        }
+
+        @Bean
+        public AuditorAware<String> auditorProvider() {
+            return () -> Optional.of(UUID.randomUUID().toString());
+        }
+
+        @Bean
+        public DateTimeProvider auditDateTimeProvider() {
+            return () -> Optional.of(LocalDateTime.now());
+        }
+    }
+}
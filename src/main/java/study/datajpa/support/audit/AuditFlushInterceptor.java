@@ -0,0 +1,30 @@
+package study.datajpa.support.audit;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.Transaction;
+
+import java.util.Iterator;
+
+/**
+ * flush 단위로 AuditClock 스냅샷 초기화
+ *  - SessionFactory 범위 Interceptor(hibernate.session_factory.interceptor)로 등록되므로 상태를 갖지 않는다.
+ */
+public class AuditFlushInterceptor extends EmptyInterceptor {
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void preFlush(Iterator entities) {
+        AuditClock.reset();
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void postFlush(Iterator entities) {
+        AuditClock.reset();
+    }
+
+    @Override
+    public void afterTransactionCompletion(Transaction tx) {
+        AuditClock.reset();
+    }
+}
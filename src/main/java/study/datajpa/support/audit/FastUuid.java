@@ -0,0 +1,22 @@
+package study.datajpa.support.audit;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ThreadLocalRandom 기반 UUID(version 4)
+ *  - UUID.randomUUID()는 SecureRandom을 공유하여 동시 호출 시 락 경합이 생긴다.
+ *  - 예측 불가능해야 하는 값(토큰 등)에는 사용하지 않는다.
+ */
+public final class FastUuid {
+
+    private FastUuid() {
+    }
+
+    public static UUID randomUuid() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(most, least);
+    }
+}
@@ -0,0 +1,69 @@
+package study.datajpa.support.audit;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * 트랜잭션(없으면 요청)마다 한번만 작성자를 구하는 AuditorAware
+ *  - 같은 트랜잭션에서 저장/수정되는 엔티티는 모두 같은 작성자를 갖는다.
+ *  - REQUIRES_NEW로 트랜잭션이 중단되면 바깥 트랜잭션의 작성자도 함께 중단/재개한다.
+ */
+public class TransactionScopedAuditorAware implements AuditorAware<String> {
+
+    private static final String REQUEST_ATTRIBUTE = TransactionScopedAuditorAware.class.getName() + ".auditor";
+
+    private final Supplier<String> resolver;
+
+    public TransactionScopedAuditorAware(Supplier<String> resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            return Optional.of(transactionAuditor());
+        }
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            String auditor = (String) request.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+            if (auditor == null) {
+                auditor = resolver.get();
+                request.setAttribute(REQUEST_ATTRIBUTE, auditor, RequestAttributes.SCOPE_REQUEST);
+            }
+            return Optional.of(auditor);
+        }
+        return Optional.of(resolver.get());
+    }
+
+    private String transactionAuditor() {
+        String auditor = (String) TransactionSynchronizationManager.getResource(this);
+        if (auditor != null) {
+            return auditor;
+        }
+        String resolved = resolver.get();
+        TransactionSynchronizationManager.bindResource(this, resolved);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TransactionScopedAuditorAware.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(TransactionScopedAuditorAware.this, resolved);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TransactionScopedAuditorAware.this);
+            }
+        });
+        return resolved;
+    }
+}
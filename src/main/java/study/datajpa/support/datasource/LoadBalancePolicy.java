@@ -0,0 +1,10 @@
+package study.datajpa.support.datasource;
+
+/**
+ * 읽기 전용 트랜잭션을 보낼 replica 선택 방식
+ *  - ROUND_ROBIN: 순서대로
+ *  - LEAST_CONNECTIONS: 사용 중인 커넥션이 가장 적은 replica(Hikari 풀만 지원, 그 외는 0으로 본다)
+ */
+public enum LoadBalancePolicy {
+    ROUND_ROBIN, LEAST_CONNECTIONS
+}
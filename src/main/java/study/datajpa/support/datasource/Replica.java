@@ -0,0 +1,48 @@
+package study.datajpa.support.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 읽기 전용 replica
+ *  - lagMillis는 ReplicaLagMonitor가 갱신한다.(측정하지 않으면 0, 측정 실패 시 Long.MAX_VALUE)
+ *  - routedCount: ReplicationRoutingDataSource가 이 replica를 고른 횟수
+ */
+@Getter
+public class Replica {
+    private final String name;
+    private final DataSource dataSource;
+    private volatile long lagMillis;
+    @Getter(AccessLevel.NONE)
+    private final LongAdder routed = new LongAdder();
+
+    public Replica(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public void updateLag(long lagMillis) {
+        this.lagMillis = lagMillis;
+    }
+
+    void markRouted() {
+        routed.increment();
+    }
+
+    public long getRoutedCount() {
+        return routed.sum();
+    }
+
+    public int activeConnections() {
+        if (dataSource instanceof HikariDataSource) {
+            HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+            return pool == null ? 0 : pool.getActiveConnections();
+        }
+        return 0;
+    }
+}
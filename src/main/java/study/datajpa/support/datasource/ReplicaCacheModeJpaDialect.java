@@ -0,0 +1,55 @@
+package study.datajpa.support.datasource;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import java.sql.SQLException;
+
+/**
+ * 읽기 전용 트랜잭션에서는 2차 캐시에 넣지 않는다.(CacheMode.GET)
+ *  - 읽기 전용 트랜잭션은 replica로 라우팅되므로, 지연된 replica에서 읽은 엔티티가
+ *    bulk 연산으로 비운 2차 캐시를 다시 오래된 값으로 채울 수 있다.
+ *  - 캐시에서 읽는 것은 그대로 허용하고, 트랜잭션이 끝나면 이전 CacheMode로 되돌린다.(OSIV)
+ */
+class ReplicaCacheModeJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException, TransactionException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode previous = session.getCacheMode();
+        session.setCacheMode(CacheMode.GET);
+        return new CacheModeTransactionData(transactionData, session, previous);
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (transactionData instanceof CacheModeTransactionData) {
+            CacheModeTransactionData data = (CacheModeTransactionData) transactionData;
+            data.session.setCacheMode(data.previous);
+            transactionData = data.delegate;
+        }
+        super.cleanupTransaction(transactionData);
+    }
+
+    private static class CacheModeTransactionData {
+        private final Object delegate;
+        private final Session session;
+        private final CacheMode previous;
+
+        CacheModeTransactionData(Object delegate, Session session, CacheMode previous) {
+            this.delegate = delegate;
+            this.session = session;
+            this.previous = previous;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package study.datajpa.support.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * replica 복제 지연 측정
+ *  - lagQuery는 지연 시간(ms) 한 값을 반환해야 한다.
+ *    예) PostgreSQL: select extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000
+ *  - 측정에 실패한 replica는 지연을 Long.MAX_VALUE로 두어 다음 측정 전까지 제외한다.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements Runnable {
+
+    private final List<Replica> replicas;
+    private final String lagQuery;
+
+    public ReplicaLagMonitor(List<Replica> replicas, String lagQuery) {
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+    }
+
+    @Override
+    public void run() {
+        for (Replica replica : replicas) {
+            try {
+                replica.updateLag(measure(replica));
+            } catch (SQLException | RuntimeException e) {
+                log.warn("Failed to measure replication lag of {}", replica.getName(), e);
+                replica.updateLag(Long.MAX_VALUE);
+            }
+        }
+    }
+
+    private long measure(Replica replica) throws SQLException {
+        try (Connection connection = replica.getDataSource().getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (!rs.next()) {
+                throw new SQLException("Lag query returned no rows: " + lagQuery);
+            }
+            return Math.max(0, rs.getLong(1));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package study.datajpa.support.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 읽기/쓰기 분리 설정(datajpa.datasource.replication.enabled=true)
+ *  - primary는 기존 spring.datasource.hikari 설정을 그대로 사용한다.
+ *  - 커넥션 풀은 빈으로 등록하지 않는다.(p6spy가 풀마다 한번 더 감싸서 SQL이 중복 기록되지 않도록)
+ *  - 읽기 전용 트랜잭션은 2차 캐시에 넣지 않는다.(ReplicaCacheModeJpaDialect)
+ */
+@Configuration
+@ConditionalOnProperty(name = "datajpa.datasource.replication.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicationDataSourceProperties.class)
+public class ReplicationDataSourceConfig {
+
+    @Bean
+    public ReplicationDataSources replicationDataSources(Environment environment, ReplicationDataSourceProperties properties) {
+        HikariDataSource primary = new HikariDataSource();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        List<Replica> replicas = new ArrayList<>();
+        for (ReplicationDataSourceProperties.ReplicaProperties replica : properties.getReplicas()) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(replica.getName());
+            pool.setJdbcUrl(replica.getJdbcUrl());
+            pool.setUsername(replica.getUsername());
+            pool.setPassword(replica.getPassword());
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            pool.setReadOnly(true);
+            replicas.add(new Replica(replica.getName(), pool));
+        }
+        return new ReplicationDataSources(primary, replicas, properties);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicationDataSources replicationDataSources) {
+        return new LazyConnectionDataSourceProxy(replicationDataSources.getRouting());
+    }
+
+    /**
+     * JpaTransactionManager는 초기화할 때 EntityManagerFactory의 JpaDialect로 덮어쓰므로 초기화 후에 바꾼다.
+     */
+    @Bean
+    public static BeanPostProcessor replicaCacheModePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof JpaTransactionManager) {
+                    ((JpaTransactionManager) bean).setJpaDialect(new ReplicaCacheModeJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * 커넥션 풀과 복제 지연 측정 스케줄러의 생명주기 관리
+     */
+    @Slf4j
+    public static class ReplicationDataSources implements DisposableBean {
+        private final HikariDataSource primary;
+        private final List<Replica> replicas;
+        private final ReplicationRoutingDataSource routing;
+        private final ScheduledExecutorService lagChecker;
+
+        ReplicationDataSources(HikariDataSource primary, List<Replica> replicas, ReplicationDataSourceProperties properties) {
+            this.primary = primary;
+            this.replicas = replicas;
+            this.routing = new ReplicationRoutingDataSource(primary, replicas, properties.getPolicy(), properties.getMaxLag());
+            if (StringUtils.hasText(properties.getLagQuery()) && !replicas.isEmpty()) {
+                CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("replica-lag-");
+                threadFactory.setDaemon(true);
+                long interval = properties.getLagCheckInterval().toMillis();
+                this.lagChecker = Executors.newSingleThreadScheduledExecutor(threadFactory);
+                this.lagChecker.scheduleWithFixedDelay(new ReplicaLagMonitor(replicas, properties.getLagQuery()),
+                        0, interval, TimeUnit.MILLISECONDS);
+            } else {
+                if (!replicas.isEmpty()) {
+                    log.warn("datajpa.datasource.replication.lag-query is not set, replica lag is not measured and max-lag={} is not enforced",
+                            properties.getMaxLag());
+                }
+                this.lagChecker = null;
+            }
+        }
+
+        public ReplicationRoutingDataSource getRouting() {
+            return routing;
+        }
+
+        @Override
+        public void destroy() {
+            if (lagChecker != null) {
+                lagChecker.shutdownNow();
+            }
+            for (Replica replica : replicas) {
+                ((HikariDataSource) replica.getDataSource()).close();
+            }
+            primary.close();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package study.datajpa.support.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties("datajpa.datasource.replication")
+public class ReplicationDataSourceProperties {
+    private boolean enabled;
+    private LoadBalancePolicy policy = LoadBalancePolicy.ROUND_ROBIN;
+    /**
+     * 허용하는 최대 복제 지연
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration lagCheckInterval = Duration.ofSeconds(5);
+    /**
+     * 지연(ms)을 반환하는 쿼리, 없으면 측정하지 않는다.
+     */
+    private String lagQuery;
+    private List<ReplicaProperties> replicas = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class ReplicaProperties {
+        private String name;
+        private String jdbcUrl;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
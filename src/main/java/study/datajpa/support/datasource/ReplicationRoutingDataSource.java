@@ -0,0 +1,85 @@
+package study.datajpa.support.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기/쓰기 분리 DataSource
+ *  - 읽기 전용 트랜잭션(@Transactional(readOnly = true))은 replica, 그 외(쓰기, 트랜잭션 없음)는 primary로 보낸다.
+ *  - maxLag보다 뒤처진 replica는 제외하고, 사용할 수 있는 replica가 없으면 primary로 보낸다.
+ *  - 트랜잭션 시작 시점에는 readOnly 여부가 아직 정해지지 않았으므로 LazyConnectionDataSourceProxy로 감싸서
+ *    실제 SQL을 실행할 때 커넥션을 얻도록 해야 한다.
+ */
+public class ReplicationRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas;
+    private final LoadBalancePolicy policy;
+    private final long maxLagMillis;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    public ReplicationRoutingDataSource(DataSource primary, List<Replica> replicas,
+                                        LoadBalancePolicy policy, Duration maxLag) {
+        this.replicas = List.copyOf(replicas);
+        this.policy = policy;
+        this.maxLagMillis = maxLag.toMillis();
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (Replica replica : replicas) {
+            targets.put(replica.getName(), replica.getDataSource());
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        Replica replica = selectReplica();
+        if (replica == null) {
+            return PRIMARY;
+        }
+        replica.markRouted();
+        return replica.getName();
+    }
+
+    private Replica selectReplica() {
+        int size = replicas.size();
+        if (size == 0) {
+            return null;
+        }
+        int start = Math.floorMod(sequence.getAndIncrement(), size);
+        Replica selected = null;
+        int selectedConnections = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.getLagMillis() > maxLagMillis) {
+                continue;
+            }
+            if (policy == LoadBalancePolicy.ROUND_ROBIN) {
+                return replica;
+            }
+            int connections = replica.activeConnections();
+            if (connections < selectedConnections) {
+                selected = replica;
+                selectedConnections = connections;
+            }
+        }
+        return selected;
+    }
+}
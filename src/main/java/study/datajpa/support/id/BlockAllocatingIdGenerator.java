@@ -0,0 +1,68 @@
+package study.datajpa.support.id;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * datajpa.id.strategy에 따라 id를 만드는 생성기(IdStrategy)
+ *  - 시퀀스(sequence_name, increment_size)는 SequenceStyleGenerator 그대로 만들므로 DDL과 SEQUENCE 방식은 기존과 같다.
+ *  - BLOCK, SNOWFLAKE는 스레드 간 잠금 경합이 없고 insert마다 DB를 조회하지 않는다.(JDBC batch insert 유지)
+ *  - 설정은 IdGenerationConfig가 Hibernate 설정(datajpa.id.*)으로 넘긴다.
+ */
+public class BlockAllocatingIdGenerator extends SequenceStyleGenerator {
+
+    public static final String STRATEGY = "datajpa.id.strategy";
+    public static final String STRIPES = "datajpa.id.stripes";
+    public static final String NODE_ID = "datajpa.id.node-id";
+
+    // 같은 노드의 모든 엔티티가 하나의 시각/순번 상태를 공유
+    private static final ConcurrentMap<Integer, SnowflakeIdGenerator> SNOWFLAKES = new ConcurrentHashMap<>();
+
+    private IdStrategy strategy = IdStrategy.SEQUENCE;
+    private StripedBlockAllocator blocks;
+    private SnowflakeIdGenerator snowflake;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        super.configure(type, params, serviceRegistry);
+        Map<?, ?> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        Object configured = settings.get(STRATEGY);
+        if (configured != null) {
+            strategy = IdStrategy.valueOf(configured.toString().trim().toUpperCase());
+        }
+        if (strategy == IdStrategy.BLOCK) {
+            int stripes = ConfigurationHelper.getInt(STRIPES, settings, 0);
+            blocks = new StripedBlockAllocator(getDatabaseStructure().getIncrementSize(),
+                    stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors() * 2,
+                    getDatabaseStructure().getInitialValue());
+        } else if (strategy == IdStrategy.SNOWFLAKE) {
+            int node = ConfigurationHelper.getInt(NODE_ID, settings, 0);
+            snowflake = SNOWFLAKES.computeIfAbsent(node, SnowflakeIdGenerator::new);
+        }
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        switch (strategy) {
+            case BLOCK:
+                AccessCallback sequence = getDatabaseStructure().buildCallback(session);
+                return blocks.next(() -> sequence.getNextValue().makeValue().longValue());
+            case SNOWFLAKE:
+                return snowflake.next();
+            default:
+                return super.generate(session, object);
+        }
+    }
+}
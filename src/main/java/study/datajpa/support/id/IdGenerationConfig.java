@@ -0,0 +1,24 @@
+package study.datajpa.support.id;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * datajpa.id.* -> Hibernate 설정(BlockAllocatingIdGenerator가 기동 시 읽는다)
+ */
+@Configuration
+public class IdGenerationConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer idGenerationProperties(@Value("${datajpa.id.strategy:sequence}") IdStrategy strategy,
+                                                                @Value("${datajpa.id.stripes:0}") int stripes,
+                                                                @Value("${datajpa.id.node-id:0}") int nodeId) {
+        return properties -> {
+            properties.put(BlockAllocatingIdGenerator.STRATEGY, strategy.name());
+            properties.put(BlockAllocatingIdGenerator.STRIPES, stripes);
+            properties.put(BlockAllocatingIdGenerator.NODE_ID, nodeId);
+        };
+    }
+}
@@ -0,0 +1,12 @@
+package study.datajpa.support.id;
+
+/**
+ * 엔티티 id 생성 방식(datajpa.id.strategy)
+ *  - SEQUENCE: Hibernate pooled 최적화(allocationSize 단위, 생성기 하나를 모든 스레드가 공유)
+ *  - BLOCK: 스레드를 stripe로 나누어 stripe마다 시퀀스 블록을 따로 할당(StripedBlockAllocator)
+ *  - SNOWFLAKE: DB 없이 시각(ms) + 노드 id + 순번으로 만드는 64비트 id(SnowflakeIdGenerator)
+ *    값이 2^53보다 커서 JSON 숫자를 double로 읽는 클라이언트(JavaScript 등)에서는 정밀도가 깨진다.(MemberDto.id)
+ */
+public enum IdStrategy {
+    SEQUENCE, BLOCK, SNOWFLAKE
+}
@@ -0,0 +1,58 @@
+package study.datajpa.support.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * 시각 순서 64비트 id(부호 1 + 시각 41 + 노드 10 + 순번 12 비트)
+ *  - 시각은 EPOCH(2023-01-01) 이후 ms, 약 69년 사용 가능
+ *  - 노드(0~1023)마다 ms당 4096개, 잠금 없이 CAS로 (시각, 순번)을 함께 증가시킨다.
+ *  - 순번이 넘치거나 시계가 뒤로 가면 기다리지 않고 마지막 시각에서 이어서 발급한다.(잠깐 실제 시각보다 앞설 수 있다)
+ *  - 노드 id가 겹치지 않아야 여러 서버에서 중복되지 않는다.
+ */
+public class SnowflakeIdGenerator {
+
+    public static final long EPOCH = Instant.parse("2023-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    public static final int MAX_NODE = (1 << NODE_BITS) - 1;
+
+    private final long node;
+    private final LongSupplier clock;
+    // (EPOCH 이후 ms << SEQUENCE_BITS) | 순번
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(int node) {
+        this(node, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(int node, LongSupplier clock) {
+        if (node < 0 || node > MAX_NODE) {
+            throw new IllegalArgumentException("node must be between 0 and " + MAX_NODE + ": " + node);
+        }
+        this.node = node;
+        this.clock = clock;
+    }
+
+    public long next() {
+        long now = (clock.getAsLong() - EPOCH) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = state.get();
+            // 같은 ms(또는 시계가 뒤로 간 경우)면 순번 증가, 순번이 넘치면 다음 ms로 넘어간다.
+            next = Math.max(now, previous + 1);
+        } while (!state.compareAndSet(previous, next));
+        long millis = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * @return id가 발급된 시각(ms, epoch 기준)
+     */
+    public static long timestamp(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+}
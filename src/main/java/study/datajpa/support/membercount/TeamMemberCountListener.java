@@ -0,0 +1,135 @@
+package study.datajpa.support.membercount;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.entity.TeamEntity;
+import study.datajpa.repository.projection.EntityColumns;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 회원 insert/delete/팀 변경 -> TeamEntity.memberCount 유지
+ *  - flush 중에는 팀별 증감만 모으고, 커밋 직전에 "member_count = member_count + ?" 를 팀 id 순으로 batch 실행한다.
+ *    (행을 읽지 않는 원자적 증감이라 동시 트랜잭션끼리 값을 덮어쓰지 않고, 같은 순서로 잠가 교착을 피한다.)
+ *  - 커밋 후 갱신한 팀의 2차 캐시를 비운다.
+ *  - 롤백되면 모은 증감도 버린다.
+ */
+public class TeamMemberCountListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private final ConcurrentMap<SharedSessionContractImplementor, Map<Long, Long>> deltas = new ConcurrentHashMap<>();
+    private volatile String updateSql;
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof MemberEntity) {
+            add(event.getSession(), teamId(event.getPersister(), event.getState()), 1);
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!(event.getEntity() instanceof MemberEntity) || event.getOldState() == null) {
+            return;
+        }
+        Long before = teamId(event.getPersister(), event.getOldState());
+        Long after = teamId(event.getPersister(), event.getState());
+        if (before == null ? after != null : !before.equals(after)) {
+            add(event.getSession(), before, -1);
+            add(event.getSession(), after, 1);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof MemberEntity) {
+            add(event.getSession(), teamId(event.getPersister(), event.getDeletedState()), -1);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return false;
+    }
+
+    private void add(EventSource session, Long teamId, long delta) {
+        if (teamId == null) {
+            return;
+        }
+        deltas.computeIfAbsent(session, key -> {
+            Map<Long, Long> teams = new TreeMap<>();
+            session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::apply);
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) this::afterCompletion);
+            return teams;
+        }).merge(teamId, delta, Long::sum);
+    }
+
+    private void apply(SessionImplementor session) {
+        Map<Long, Long> teams = deltas.get(session);
+        if (teams == null || teams.isEmpty()) {
+            return;
+        }
+        String sql = updateSql(session);
+        PreparedStatement statement = session.getJdbcCoordinator().getStatementPreparer().prepareStatement(sql);
+        try {
+            for (Map.Entry<Long, Long> team : teams.entrySet()) {
+                if (team.getValue() != 0) {
+                    statement.setLong(1, team.getValue());
+                    statement.setLong(2, team.getKey());
+                    statement.addBatch();
+                }
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(e, "Failed to update team member counts", sql);
+        } finally {
+            session.getJdbcCoordinator().getLogicalConnection().getResourceRegistry().release(statement);
+            session.getJdbcCoordinator().afterStatementExecution();
+        }
+    }
+
+    private void afterCompletion(boolean success, SharedSessionContractImplementor session) {
+        Map<Long, Long> teams = deltas.remove(session);
+        if (success && teams != null) {
+            teams.keySet().forEach(teamId -> session.getFactory().getCache().evictEntityData(TeamEntity.class, teamId));
+        }
+    }
+
+    private String updateSql(SessionImplementor session) {
+        String sql = updateSql;
+        if (sql == null) {
+            EntityColumns team = EntityColumns.of(session.getFactory(), TeamEntity.class);
+            String count = team.column("memberCount");
+            sql = "update " + team.table() + " set " + count + " = " + count + " + ? where " + team.column("id") + " = ?";
+            updateSql = sql;
+        }
+        return sql;
+    }
+
+    private static Long teamId(EntityPersister persister, Object[] state) {
+        Object team = state[persister.getEntityMetamodel().getPropertyIndex("team")];
+        if (team == null) {
+            return null;
+        }
+        if (team instanceof HibernateProxy) {
+            return (Long) ((HibernateProxy) team).getHibernateLazyInitializer().getIdentifier();
+        }
+        return ((TeamEntity) team).getId();
+    }
+}
@@ -0,0 +1,130 @@
+package study.datajpa.support.metrics;
+
+import study.datajpa.repository.bulk.ChunkedBulkUpdater;
+import study.datajpa.repository.lock.OptimisticRetryTemplate;
+import study.datajpa.support.sql.SqlBudgetInterceptor;
+
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * RepositoryMetrics -> Prometheus text format(0.0.4)
+ */
+public final class PrometheusRepositoryMetrics {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private PrometheusRepositoryMetrics() {
+    }
+
+    public static String format(Map<String, RepositoryMethodMetrics> metrics) {
+        StringBuilder out = new StringBuilder(4096);
+        out.append("# HELP repository_method_seconds Repository method latency\n")
+                .append("# TYPE repository_method_seconds summary\n");
+        for (RepositoryMethodMetrics m : metrics.values()) {
+            LatencyHistogram latency = m.getLatency();
+            for (double quantile : QUANTILES) {
+                sample(out, "repository_method_seconds", m, ",quantile=\"" + quantile + "\"", seconds(latency.percentile(quantile)));
+            }
+            sample(out, "repository_method_seconds_count", m, "", latency.getCount());
+            sample(out, "repository_method_seconds_sum", m, "", seconds(latency.getSumNanos()));
+        }
+        gauge(out, "repository_method_seconds_max", "Max repository method latency", metrics, m -> seconds(m.getLatency().getMaxNanos()));
+        counter(out, "repository_method_errors_total", "Calls that threw", metrics, m -> m.getErrors().sum());
+        counter(out, "repository_method_rows_total", "Rows (elements) returned", metrics, m -> m.getRows().sum());
+        counter(out, "repository_method_statements_total", "JDBC statements executed", metrics, m -> m.getStatements().sum());
+        counter(out, "repository_method_allocated_bytes_total", "Bytes allocated by the calling thread", metrics, m -> m.getAllocatedBytes().sum());
+        gauge(out, "repository_method_persistence_context_entities", "Managed entities after the last call", metrics, RepositoryMethodMetrics::getLastPersistenceContextSize);
+        gauge(out, "repository_method_persistence_context_entities_max", "Max managed entities after a call", metrics, m -> m.getMaxPersistenceContextSize().get());
+        return out.toString();
+    }
+
+    /**
+     * OptimisticRetryTemplate 작업별 시도/충돌/포기 횟수
+     */
+    public static String formatRetries(Map<String, OptimisticRetryTemplate.Stats> stats) {
+        StringBuilder out = new StringBuilder(1024);
+        operationFamily(out, "optimistic_retry_calls_total", "Calls", "counter", stats, s -> s.getCalls().sum());
+        operationFamily(out, "optimistic_retry_attempts_total", "Transactions attempted", "counter", stats, s -> s.getAttempts().sum());
+        operationFamily(out, "optimistic_retry_conflicts_total", "Attempts rolled back by a version conflict", "counter", stats, s -> s.getConflicts().sum());
+        operationFamily(out, "optimistic_retry_exhausted_total", "Calls that gave up after max-attempts", "counter", stats, s -> s.getExhausted().sum());
+        operationFamily(out, "optimistic_retry_conflict_ratio", "Conflicts per attempt", "gauge", stats, OptimisticRetryTemplate.Stats::getConflictRate);
+        return out.toString();
+    }
+
+    /**
+     * ChunkedBulkUpdater 작업별 실행/chunk/행 수, 진행 위치, 처리량
+     */
+    public static String formatBulkUpdates(Map<String, ChunkedBulkUpdater.Stats> stats) {
+        StringBuilder out = new StringBuilder(1024);
+        operationFamily(out, "bulk_update_runs_total", "Runs started", "counter", stats, s -> s.getRuns().sum());
+        operationFamily(out, "bulk_update_failures_total", "Runs stopped by a failed or interrupted chunk", "counter", stats, s -> s.getFailures().sum());
+        operationFamily(out, "bulk_update_chunks_total", "Chunks committed", "counter", stats, s -> s.getChunks().sum());
+        operationFamily(out, "bulk_update_rows_total", "Rows updated in committed chunks", "counter", stats, s -> s.getRows().sum());
+        operationFamily(out, "bulk_update_seconds_total", "Time spent in completed runs", "counter", stats, s -> seconds(s.getElapsedNanos().sum()));
+        operationFamily(out, "bulk_update_last_id", "Last id of the last committed chunk", "gauge", stats, ChunkedBulkUpdater.Stats::getLastId);
+        operationFamily(out, "bulk_update_rows_per_second", "Throughput of the current or last run", "gauge", stats, ChunkedBulkUpdater.Stats::getRowsPerSecond);
+        return out.toString();
+    }
+
+    /**
+     * SqlBudgetInterceptor 요청 메소드 + 경로 패턴별 SQL 예산 초과 횟수
+     */
+    public static String formatSqlBudget(Map<String, SqlBudgetInterceptor.Route> violations) {
+        String name = "sql_budget_violations_total";
+        StringBuilder out = new StringBuilder(512);
+        out.append("# HELP ").append(name).append(" Requests over the SQL budget or with repeated statements\n")
+                .append("# TYPE ").append(name).append(" counter\n");
+        for (SqlBudgetInterceptor.Route route : violations.values()) {
+            out.append(name)
+                    .append("{method=\"").append(route.getMethod())
+                    .append("\",pattern=\"").append(escape(route.getPattern())).append("\"} ")
+                    .append((double) route.getCount().sum()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static <S> void operationFamily(StringBuilder out, String name, String help, String type, Map<String, S> stats,
+                                            ToDoubleFunction<S> value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        stats.forEach((operation, stat) -> out.append(name)
+                .append("{operation=\"").append(operation).append("\"} ")
+                .append(value.applyAsDouble(stat)).append('\n'));
+    }
+
+    private static void counter(StringBuilder out, String name, String help, Map<String, RepositoryMethodMetrics> metrics,
+                                ToDoubleFunction<RepositoryMethodMetrics> value) {
+        family(out, name, help, "counter", metrics, value);
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, Map<String, RepositoryMethodMetrics> metrics,
+                              ToDoubleFunction<RepositoryMethodMetrics> value) {
+        family(out, name, help, "gauge", metrics, value);
+    }
+
+    private static void family(StringBuilder out, String name, String help, String type, Map<String, RepositoryMethodMetrics> metrics,
+                               ToDoubleFunction<RepositoryMethodMetrics> value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        for (RepositoryMethodMetrics m : metrics.values()) {
+            sample(out, name, m, "", value.applyAsDouble(m));
+        }
+    }
+
+    private static void sample(StringBuilder out, String name, RepositoryMethodMetrics m, String extraLabels, double value) {
+        out.append(name)
+                .append("{repository=\"").append(m.getRepository())
+                .append("\",method=\"").append(m.getMethod()).append('"')
+                .append(extraLabels)
+                .append("} ").append(value).append('\n');
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000d;
+    }
+}
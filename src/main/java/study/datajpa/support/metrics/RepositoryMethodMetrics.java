@@ -0,0 +1,46 @@
+package study.datajpa.support.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Repository 메소드 하나의 누적 지표
+ */
+@Getter
+public class RepositoryMethodMetrics {
+
+    private final String repository;
+    private final String method;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAccumulator maxPersistenceContextSize = new LongAccumulator(Math::max, 0);
+    private volatile long lastPersistenceContextSize;
+
+    RepositoryMethodMetrics(String repository, String method) {
+        this.repository = repository;
+        this.method = method;
+    }
+
+    void record(long nanos, boolean error, long rows, long statements, long allocatedBytes, long persistenceContextSize) {
+        latency.record(nanos);
+        if (error) {
+            errors.increment();
+        }
+        if (rows > 0) {
+            this.rows.add(rows);
+        }
+        this.statements.add(statements);
+        if (allocatedBytes > 0) {
+            this.allocatedBytes.add(allocatedBytes);
+        }
+        if (persistenceContextSize >= 0) {
+            lastPersistenceContextSize = persistenceContextSize;
+            maxPersistenceContextSize.accumulate(persistenceContextSize);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package study.datajpa.support.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.hibernate.Session;
+import org.springframework.data.domain.Slice;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.support.sql.SqlStatementCounter;
+
+import javax.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.BaseStream;
+
+/**
+ * Repository 메소드별 지연 시간, 반환 행 수, 실행 SQL 수, 할당량, 호출 후 영속성 컨텍스트 크기
+ *  - Spring Data Repository는 프록시에 interceptor()를, 순수 JPA Repository는 RepositoryMetricsAspect가 measure()를 붙인다.
+ *  - 같은 이름의 오버로드 메소드는 하나로 모은다.
+ *  - 할당량은 com.sun.management.ThreadMXBean을 지원하는 JVM에서만 기록한다.
+ *  - 영속성 컨텍스트 크기는 트랜잭션(또는 OSIV)에 묶인 EntityManager가 있을 때만 기록한다.
+ */
+@Slf4j
+public class RepositoryMetrics {
+
+    private final EntityManagerFactory emf;
+    private final com.sun.management.ThreadMXBean allocation;
+    private final ConcurrentMap<String, RepositoryMethodMetrics> metrics = new ConcurrentHashMap<>();
+
+    public RepositoryMetrics(EntityManagerFactory emf, boolean trackAllocation) {
+        this.emf = emf;
+        this.allocation = trackAllocation ? allocationBean() : null;
+    }
+
+    /**
+     * Repository 하나의 프록시에 붙일 interceptor(Method -> 지표 조회를 문자열 생성 없이)
+     */
+    public MethodInterceptor interceptor(String repository) {
+        ConcurrentMap<Method, RepositoryMethodMetrics> methods = new ConcurrentHashMap<>();
+        return invocation -> {
+            Method method = invocation.getMethod();
+            RepositoryMethodMetrics target = methods.get(method);
+            if (target == null) {
+                target = methods.computeIfAbsent(method, m -> method(repository, m.getName()));
+            }
+            return measure(target, invocation::proceed);
+        };
+    }
+
+    public RepositoryMethodMetrics method(String repository, String method) {
+        return metrics.computeIfAbsent(repository + "." + method, key -> new RepositoryMethodMetrics(repository, method));
+    }
+
+    public Object measure(RepositoryMethodMetrics target, Invocation invocation) throws Throwable {
+        long statementsBefore = SqlStatementCounter.current();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        Object result = null;
+        boolean error = true;
+        try {
+            result = invocation.proceed();
+            error = false;
+            return result;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            target.record(nanos, error, rows(result), SqlStatementCounter.current() - statementsBefore,
+                    allocation != null ? allocatedBytes() - allocatedBefore : 0, persistenceContextSize());
+        }
+    }
+
+    /**
+     * @return "Repository.method" 순으로 정렬된 지표
+     */
+    public Map<String, RepositoryMethodMetrics> snapshot() {
+        return new TreeMap<>(metrics);
+    }
+
+    private long allocatedBytes() {
+        return allocation != null ? allocation.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    private long persistenceContextSize() {
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(emf);
+        if (holder == null || !holder.getEntityManager().isOpen()) {
+            return -1;
+        }
+        return holder.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount();
+    }
+
+    private static long rows(Object result) {
+        if (result == null || result instanceof Number || result instanceof Boolean || result instanceof BaseStream) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        return 1;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean;
+            }
+        }
+        log.info("Thread allocation tracking is not supported, repository allocation metrics disabled");
+        return null;
+    }
+
+    @FunctionalInterface
+    public interface Invocation {
+        Object proceed() throws Throwable;
+    }
+}
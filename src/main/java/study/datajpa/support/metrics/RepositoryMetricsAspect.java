@@ -0,0 +1,34 @@
+package study.datajpa.support.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 순수 JPA Repository(MemberJpaRepository, TeamJpaRepository) 지표 수집
+ *  - Spring Data Repository 프록시가 아니므로 AOP로 붙인다.
+ */
+@Aspect
+@RequiredArgsConstructor
+public class RepositoryMetricsAspect {
+
+    private final RepositoryMetrics repositoryMetrics;
+    private final ConcurrentMap<Method, RepositoryMethodMetrics> methods = new ConcurrentHashMap<>();
+
+    @Around("execution(public * study.datajpa.repository.*JpaRepository.*(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        RepositoryMethodMetrics target = methods.get(method);
+        if (target == null) {
+            target = methods.computeIfAbsent(method,
+                    m -> repositoryMetrics.method(m.getDeclaringClass().getSimpleName(), m.getName()));
+        }
+        return repositoryMetrics.measure(target, joinPoint::proceed);
+    }
+}
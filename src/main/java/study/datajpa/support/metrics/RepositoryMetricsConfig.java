@@ -0,0 +1,48 @@
+package study.datajpa.support.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Repository 지표 수집 설정(datajpa.metrics.enabled)
+ *  - Spring Data Repository 팩토리에 프록시 후처리기를 등록해 모든 메소드(파생 쿼리, @Query, 사용자 정의 구현)에 interceptor를 붙인다.
+ *  - 트랜잭션 interceptor 안쪽에서 실행되므로 영속성 컨텍스트 크기는 Repository 트랜잭션 커밋 전 값이다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datajpa.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class RepositoryMetricsConfig {
+
+    @Bean
+    public RepositoryMetrics repositoryMetrics(EntityManagerFactory emf,
+                                               @Value("${datajpa.metrics.allocation:true}") boolean trackAllocation) {
+        return new RepositoryMetrics(emf, trackAllocation);
+    }
+
+    @Bean
+    public RepositoryMetricsAspect repositoryMetricsAspect(RepositoryMetrics repositoryMetrics) {
+        return new RepositoryMetricsAspect(repositoryMetrics);
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryMetricsPostProcessor(ObjectProvider<RepositoryMetrics> repositoryMetrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport) {
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, information) ->
+                                    proxyFactory.addAdvice(repositoryMetrics.getObject()
+                                            .interceptor(information.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package study.datajpa.support.persistence;
+
+/**
+ * 영속성 컨텍스트가 한도를 넘었을 때의 동작
+ *  - WARN: 경고만 남긴다.(한도의 2배, 4배 ... 마다 다시 경고)
+ *  - FLUSH_CLEAR: 다음 Repository 호출 전에 flush 후 clear(이미 받은 엔티티는 준영속이 된다)
+ *  - READ_ONLY: 이후 조회하는 엔티티는 스냅샷을 만들지 않는다.(변경해도 반영되지 않는다)
+ */
+public enum GovernorMode {
+    WARN, FLUSH_CLEAR, READ_ONLY
+}
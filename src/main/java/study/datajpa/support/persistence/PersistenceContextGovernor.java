@@ -0,0 +1,198 @@
+package study.datajpa.support.persistence;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.hibernate.FlushMode;
+import org.hibernate.engine.spi.EntityEntry;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.lang.reflect.Method;
+import java.time.temporal.Temporal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 트랜잭션(또는 OSIV)에 묶인 영속성 컨텍스트의 엔티티 수와 스냅샷 메모리 감시
+ *  - Repository 호출이 끝날 때마다 관리 엔티티 수를 확인하고, check-interval 개 늘어날 때마다 스냅샷 크기를 추정한다.
+ *  - 한도(max-entities, max-snapshot-bytes)를 넘으면 GovernorMode에 따라 동작하고, 넘긴 Repository 호출 이름을 경고에 남긴다.
+ *  - 스냅샷 크기는 loadedState 배열과 값의 대략적인 크기 합이다.(정확한 힙 사용량이 아님)
+ *  - 상태는 스레드별로 두고 세션이 바뀌면 초기화한다.
+ */
+@Slf4j
+public class PersistenceContextGovernor {
+
+    private final EntityManagerFactory emf;
+    @Getter
+    private final GovernorMode mode;
+    private final long maxEntities;
+    private final long maxSnapshotBytes;
+    private final int checkInterval;
+    private final ThreadLocal<State> states = ThreadLocal.withInitial(State::new);
+
+    @Getter
+    private final LongAdder warnings = new LongAdder();
+    @Getter
+    private final LongAdder flushClears = new LongAdder();
+    @Getter
+    private final LongAdder readOnlySwitches = new LongAdder();
+
+    public PersistenceContextGovernor(EntityManagerFactory emf, GovernorMode mode, long maxEntities, long maxSnapshotBytes, int checkInterval) {
+        if (checkInterval < 1) {
+            throw new IllegalArgumentException("check-interval must be at least 1: " + checkInterval);
+        }
+        this.emf = emf;
+        this.mode = mode;
+        this.maxEntities = maxEntities;
+        this.maxSnapshotBytes = maxSnapshotBytes;
+        this.checkInterval = checkInterval;
+    }
+
+    /**
+     * Repository 하나의 프록시에 붙일 interceptor(호출 이름은 메소드별로 캐시)
+     */
+    public MethodInterceptor interceptor(String repository) {
+        ConcurrentMap<Method, String> calls = new ConcurrentHashMap<>();
+        return invocation -> {
+            Method method = invocation.getMethod();
+            String call = calls.get(method);
+            if (call == null) {
+                call = calls.computeIfAbsent(method, m -> repository + "." + m.getName());
+            }
+            beforeCall(call);
+            Object result = invocation.proceed();
+            afterCall(call);
+            return result;
+        };
+    }
+
+    /**
+     * FLUSH_CLEAR 모드에서 이전 호출이 한도를 넘겼으면 flush 후 clear
+     *  - 결과를 반환하기 전에 clear하면 호출자가 받은 엔티티를 수정할 기회 없이 준영속이 되므로 다음 호출 전에 처리한다.
+     */
+    public void beforeCall(String call) {
+        SessionImplementor session = currentSession();
+        if (session == null) {
+            return;
+        }
+        State state = state(session);
+        if (!state.clearPending) {
+            return;
+        }
+        if (session.getHibernateFlushMode() != FlushMode.MANUAL) {
+            session.flush();
+        }
+        session.clear();
+        state.reset(checkInterval);
+        flushClears.increment();
+        log.debug("Persistence context flushed and cleared before {}", call);
+    }
+
+    public void afterCall(String call) {
+        SessionImplementor session = currentSession();
+        if (session == null) {
+            return;
+        }
+        State state = state(session);
+        PersistenceContext persistenceContext = session.getPersistenceContextInternal();
+        long entities = persistenceContext.getNumberOfManagedEntities();
+        if (entities < state.nextCheck) {
+            return;
+        }
+        state.nextCheck = entities + checkInterval;
+        state.snapshotBytes = snapshotBytes(persistenceContext);
+        if (entities < Math.max(maxEntities, state.warnAtEntities) && state.snapshotBytes < Math.max(maxSnapshotBytes, state.warnAtBytes)) {
+            return;
+        }
+        switch (mode) {
+            case FLUSH_CLEAR:
+                if (!state.clearPending) {
+                    state.clearPending = true;
+                    warn(call, entities, state.snapshotBytes, "flushing and clearing before the next repository call");
+                }
+                break;
+            case READ_ONLY:
+                if (!session.isDefaultReadOnly()) {
+                    session.setDefaultReadOnly(true);
+                    readOnlySwitches.increment();
+                    warn(call, entities, state.snapshotBytes, "loading further entities read-only");
+                }
+                break;
+            default:
+                warn(call, entities, state.snapshotBytes, "consider paging, streamAll or a read-only query");
+        }
+        state.warnAtEntities = Math.max(maxEntities, entities) * 2;
+        state.warnAtBytes = Math.max(maxSnapshotBytes, state.snapshotBytes) * 2;
+    }
+
+    private void warn(String call, long entities, long snapshotBytes, String action) {
+        warnings.increment();
+        log.warn("Persistence context holds {} entities (~{} KB of snapshots) after {}, {}",
+                entities, snapshotBytes / 1024, call, action);
+    }
+
+    private State state(SessionImplementor session) {
+        State state = states.get();
+        UUID sessionId = session.getSessionIdentifier();
+        if (!sessionId.equals(state.sessionId)) {
+            state.sessionId = sessionId;
+            state.reset(checkInterval);
+        }
+        return state;
+    }
+
+    private SessionImplementor currentSession() {
+        EntityManagerHolder holder = (EntityManagerHolder) TransactionSynchronizationManager.getResource(emf);
+        if (holder == null || !holder.getEntityManager().isOpen()) {
+            return null;
+        }
+        return holder.getEntityManager().unwrap(SessionImplementor.class);
+    }
+
+    /**
+     * 스냅샷(loadedState) 크기 추정
+     *  - 배열 16 + 참조 8 바이트, 문자열은 40 + 길이, 숫자/날짜는 24 바이트로 계산한다.
+     */
+    static long snapshotBytes(PersistenceContext persistenceContext) {
+        long bytes = 0;
+        for (Map.Entry<Object, EntityEntry> entry : persistenceContext.reentrantSafeEntityEntries()) {
+            Object[] loadedState = entry.getValue().getLoadedState();
+            if (loadedState == null) {
+                continue;
+            }
+            bytes += 16 + 8L * loadedState.length;
+            for (Object value : loadedState) {
+                if (value instanceof String) {
+                    bytes += 40 + ((String) value).length();
+                } else if (value instanceof Number || value instanceof Temporal) {
+                    bytes += 24;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static class State {
+        UUID sessionId;
+        long nextCheck;
+        long snapshotBytes;
+        long warnAtEntities;
+        long warnAtBytes;
+        boolean clearPending;
+
+        void reset(int checkInterval) {
+            nextCheck = checkInterval;
+            snapshotBytes = 0;
+            warnAtEntities = 0;
+            warnAtBytes = 0;
+            clearPending = false;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package study.datajpa.support.persistence;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * 순수 JPA Repository(MemberJpaRepository, TeamJpaRepository) 호출 감시
+ */
+@Aspect
+@RequiredArgsConstructor
+public class PersistenceContextGovernorAspect {
+
+    private final PersistenceContextGovernor governor;
+
+    @Around("execution(public * study.datajpa.repository.*JpaRepository.*(..))")
+    public Object govern(ProceedingJoinPoint joinPoint) throws Throwable {
+        String call = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        governor.beforeCall(call);
+        Object result = joinPoint.proceed();
+        governor.afterCall(call);
+        return result;
+    }
+}
@@ -0,0 +1,52 @@
+package study.datajpa.support.persistence;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.unit.DataSize;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * 영속성 컨텍스트 감시 설정(datajpa.persistence-context.governor)
+ *  - RepositoryMetricsConfig와 같은 방식으로 Spring Data Repository 프록시에 interceptor를 붙인다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datajpa.persistence-context.governor.enabled", havingValue = "true", matchIfMissing = true)
+public class PersistenceContextGovernorConfig {
+
+    @Bean
+    public PersistenceContextGovernor persistenceContextGovernor(
+            EntityManagerFactory emf,
+            @Value("${datajpa.persistence-context.governor.mode:warn}") GovernorMode mode,
+            @Value("${datajpa.persistence-context.governor.max-entities:10000}") long maxEntities,
+            @Value("${datajpa.persistence-context.governor.max-snapshot-size:64MB}") DataSize maxSnapshotSize,
+            @Value("${datajpa.persistence-context.governor.check-interval:500}") int checkInterval) {
+        return new PersistenceContextGovernor(emf, mode, maxEntities, maxSnapshotSize.toBytes(), checkInterval);
+    }
+
+    @Bean
+    public PersistenceContextGovernorAspect persistenceContextGovernorAspect(PersistenceContextGovernor governor) {
+        return new PersistenceContextGovernorAspect(governor);
+    }
+
+    @Bean
+    public static BeanPostProcessor persistenceContextGovernorPostProcessor(ObjectProvider<PersistenceContextGovernor> governor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport) {
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, information) ->
+                                    proxyFactory.addAdvice(governor.getObject()
+                                            .interceptor(information.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package study.datajpa.support.sql;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(name = "datajpa.sql.budget.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlBudgetConfig implements WebMvcConfigurer {
+
+    @Value("${datajpa.sql.budget.max-statements:30}")
+    private int maxStatements;
+    @Value("${datajpa.sql.budget.repeat-threshold:5}")
+    private int repeatThreshold;
+
+    @Bean
+    public SqlBudgetInterceptor sqlBudgetInterceptor() {
+        return new SqlBudgetInterceptor(maxStatements, repeatThreshold);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlBudgetInterceptor());
+    }
+}
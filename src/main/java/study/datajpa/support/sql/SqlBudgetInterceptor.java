@@ -0,0 +1,88 @@
+package study.datajpa.support.sql;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HTTP 요청 단위 SQL 예산
+ *  - 요청 처리 중 실행된 SQL이 maxStatements를 넘거나 같은 SQL이 repeatThreshold 번 이상 실행되면(N+1 의심)
+ *    경고 로그를 남기고 요청 메소드 + 핸들러 경로 패턴(/v1/members/{id})별 위반 횟수를 올린다.
+ *    (실제 URI가 아니라 패턴 기준이라 경로 변수 값이 달라도 항목이 늘지 않는다. /v1/metrics/repository의 sql_budget_*)
+ *  - 요청 스레드에서 실행된 SQL만 센다.(비동기 처리로 넘어간 이후는 제외)
+ */
+@Slf4j
+public class SqlBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String RECORDER = SqlBudgetInterceptor.class.getName() + ".RECORDER";
+
+    private final int maxStatements;
+    private final int repeatThreshold;
+    private final Map<String, Route> violations = new ConcurrentHashMap<>();
+
+    public SqlBudgetInterceptor(int maxStatements, int repeatThreshold) {
+        this.maxStatements = maxStatements;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(RECORDER, SqlStatementRecorder.start());
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        check(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        check(request);
+    }
+
+    private void check(HttpServletRequest request) {
+        Object recorder = request.getAttribute(RECORDER);
+        if (!(recorder instanceof SqlStatementRecorder)) {
+            return;
+        }
+        request.removeAttribute(RECORDER);
+        SqlStatementReport report = ((SqlStatementRecorder) recorder).stop();
+        Map<String, Integer> repeated = report.repeated(repeatThreshold);
+        if (report.getTotal() > maxStatements || !repeated.isEmpty()) {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route = pattern != null ? pattern.toString() : "UNMAPPED";
+            violations.computeIfAbsent(request.getMethod() + " " + route, key -> new Route(request.getMethod(), route))
+                    .count.increment();
+            log.warn("SQL budget exceeded on {} {}: total={} (max {}), repeated={}",
+                    request.getMethod(), request.getRequestURI(), report.getTotal(), maxStatements, repeated);
+        }
+    }
+
+    /**
+     * @return "메소드 패턴" 순으로 정렬된 예산 초과 횟수
+     */
+    public Map<String, Route> getViolations() {
+        return new TreeMap<>(violations);
+    }
+
+    @Getter
+    public static class Route {
+        private final String method;
+        private final String pattern;
+        private final LongAdder count = new LongAdder();
+
+        private Route(String method, String pattern) {
+            this.method = method;
+            this.pattern = pattern;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package study.datajpa.support.sql;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 같은 형태의 SQL을 하나로 묶기 위한 정규화
+ *  - 문자열/숫자 리터럴은 ?, IN (?, ?, ...)은 IN (?)로 바꾸고 공백을 정리한다.
+ */
+public final class SqlNormalizer {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlNormalizer() {
+    }
+
+    public static String normalize(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("in (?)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ");
+        return normalized.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,22 @@
+package study.datajpa.support.sql;
+
+/**
+ * 스레드별 누적 SQL 실행 수
+ *  - 항상 켜져 있는 카운터로, 호출 전후 값의 차이로 실행된 SQL 수를 구한다.(RepositoryMetrics)
+ *  - SqlStatementRecorder와 달리 SQL 문자열을 정규화하지 않아 비용이 거의 없다.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private SqlStatementCounter() {
+    }
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    static void increment() {
+        COUNT.get()[0]++;
+    }
+}
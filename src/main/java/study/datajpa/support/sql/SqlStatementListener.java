@@ -0,0 +1,30 @@
+package study.datajpa.support.sql;
+
+import com.p6spy.engine.common.ResultSetInformation;
+import com.p6spy.engine.common.StatementInformation;
+import com.p6spy.engine.event.SimpleJdbcEventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+
+/**
+ * p6spy 이벤트로 실행된 SQL을 SqlStatementRecorder에 전달
+ *  - p6spy-spring-boot-starter가 JdbcEventListener 빈을 자동으로 등록한다.
+ *  - batch 실행은 executeBatch 한번을 1건으로 센다.
+ */
+@Component
+public class SqlStatementListener extends SimpleJdbcEventListener {
+
+    @Override
+    public void onAfterAnyExecute(StatementInformation statementInformation, long timeElapsedNanos, SQLException e) {
+        SqlStatementCounter.increment();
+        SqlStatementRecorder.onStatement(statementInformation.getSql());
+    }
+
+    @Override
+    public void onAfterResultSetNext(ResultSetInformation resultSetInformation, long timeElapsedNanos, boolean hasNext, SQLException e) {
+        if (hasNext) {
+            SqlStatementRecorder.onRowRead();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package study.datajpa.support.sql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 현재 스레드에서 실행된 SQL 기록
+ *  - start() ~ stop() 사이에 SqlStatementListener가 전달한 SQL을 정규화해서 횟수를 센다.
+ *  - 중첩해서 사용할 수 있고 바깥 범위에도 함께 기록된다.
+ *  - ResultSet에서 읽은 행 수도 센다.(반환한 행 수와 비교해 카티션 곱, 불필요한 조회를 찾는다.)
+ *  - 기록 중이 아닐 때는 ThreadLocal 조회 한번만 하고 넘어간다.
+ */
+public final class SqlStatementRecorder {
+
+    private static final ThreadLocal<SqlStatementRecorder> CURRENT = new ThreadLocal<>();
+
+    private final SqlStatementRecorder parent;
+    private final Map<String, Integer> statements = new LinkedHashMap<>();
+    private int total;
+    private long rowsRead;
+    private boolean stopped;
+
+    private SqlStatementRecorder(SqlStatementRecorder parent) {
+        this.parent = parent;
+    }
+
+    public static SqlStatementRecorder start() {
+        SqlStatementRecorder recorder = new SqlStatementRecorder(CURRENT.get());
+        CURRENT.set(recorder);
+        return recorder;
+    }
+
+    /**
+     * 테스트용: 작업 중 실행된 SQL을 기록해서 반환
+     */
+    public static SqlStatementReport record(Runnable work) {
+        SqlStatementRecorder recorder = start();
+        try {
+            work.run();
+        } finally {
+            recorder.stop();
+        }
+        return recorder.report();
+    }
+
+    static void onStatement(String sql) {
+        SqlStatementRecorder recorder = CURRENT.get();
+        if (recorder == null || sql == null || sql.isEmpty()) {
+            return;
+        }
+        String normalized = SqlNormalizer.normalize(sql);
+        for (; recorder != null; recorder = recorder.parent) {
+            recorder.total++;
+            recorder.statements.merge(normalized, 1, Integer::sum);
+        }
+    }
+
+    static void onRowRead() {
+        for (SqlStatementRecorder recorder = CURRENT.get(); recorder != null; recorder = recorder.parent) {
+            recorder.rowsRead++;
+        }
+    }
+
+    public SqlStatementReport stop() {
+        if (!stopped) {
+            stopped = true;
+            if (CURRENT.get() == this) {
+                if (parent == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(parent);
+                }
+            }
+        }
+        return report();
+    }
+
+    public SqlStatementReport report() {
+        return new SqlStatementReport(total, rowsRead, statements);
+    }
+}
@@ -0,0 +1,83 @@
+package study.datajpa.support.sql;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 기록된 SQL 요약과 테스트용 검증 메소드
+ *  - 같은 형태의 SQL이 여러 번 실행되면 N+1 조회로 본다.(예: 지연로딩된 team을 회원마다 조회)
+ */
+public final class SqlStatementReport {
+
+    private final int total;
+    private final long rowsRead;
+    private final Map<String, Integer> statements;
+
+    SqlStatementReport(int total, long rowsRead, Map<String, Integer> statements) {
+        this.total = total;
+        this.rowsRead = rowsRead;
+        this.statements = Collections.unmodifiableMap(new LinkedHashMap<>(statements));
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return ResultSet에서 읽은 행 수(count 쿼리 결과 1행 포함)
+     */
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    /**
+     * @return 정규화된 SQL별 실행 횟수(실행 순서)
+     */
+    public Map<String, Integer> getStatements() {
+        return statements;
+    }
+
+    /**
+     * @return threshold 번 이상 실행된 SQL
+     */
+    public Map<String, Integer> repeated(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        statements.forEach((sql, count) -> {
+            if (count >= threshold) {
+                repeated.put(sql, count);
+            }
+        });
+        return repeated;
+    }
+
+    public SqlStatementReport assertStatementCountAtMost(int max) {
+        if (total > max) {
+            throw new AssertionError("Expected at most " + max + " SQL statements but " + total + " were executed: " + statements);
+        }
+        return this;
+    }
+
+    public SqlStatementReport assertNoRepeatedStatements(int threshold) {
+        Map<String, Integer> repeated = repeated(threshold);
+        if (!repeated.isEmpty()) {
+            throw new AssertionError("N+1 suspected, statements executed " + threshold + "+ times: " + repeated);
+        }
+        return this;
+    }
+
+    /**
+     * 읽은 행 수가 반환한 행 수의 ratio 배를 넘으면 실패(조인 조건 누락 등으로 인한 카티션 곱)
+     */
+    public SqlStatementReport assertRowsReadAtMost(long returned, double ratio) {
+        if (rowsRead > Math.max(1, returned) * ratio) {
+            throw new AssertionError("Read " + rowsRead + " rows to return " + returned + " (allowed ratio " + ratio + "): " + statements);
+        }
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "SqlStatementReport(total=" + total + ", rowsRead=" + rowsRead + ", statements=" + statements + ")";
+    }
+}
@@ -0,0 +1,33 @@
+package study.datajpa.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 요청별 제한 시간(timeoutMs)은 양수만 허용한다.
+ */
+@SpringBootTest(properties = "datajpa.async.enabled=true")
+@AutoConfigureMockMvc
+class AsyncMemberControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void invalidTimeout() throws Exception {
+        mockMvc.perform(get("/v2/members").param("timeoutMs", "0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/members").param("timeoutMs", "-1")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void validTimeout() throws Exception {
+        mockMvc.perform(get("/v2/members").param("timeoutMs", "1000")).andExpect(request().asyncStarted());
+    }
+}
@@ -0,0 +1,45 @@
+package study.datajpa.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset 커서/정렬 오류는 클라이언트 오류(400)로 응답한다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class MemberControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void invalidCursor() throws Exception {
+        String numbers = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"s\":\"id:ASC\",\"v\":[1]}".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(get("/v2/members").param("cursor", numbers)).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v2/members").param("cursor", "not-a-cursor!")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v2/members").param("sort", "username").param("cursor", numbers)).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void invalidSort() throws Exception {
+        mockMvc.perform(get("/v2/members").param("sort", "unknown")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/v1/members/search").param("sort", "team")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void firstPage() throws Exception {
+        mockMvc.perform(get("/v2/members").param("sort", "username")).andExpect(status().isOk());
+    }
+}
@@ -1,12 +1,20 @@
 package study.datajpa.repository;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.entity.MemberEntity;
+import study.datajpa.entity.TeamEntity;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -16,6 +24,10 @@ class MemberJpaRepositoryTest {
 
     @Autowired
     MemberJpaRepository memberJpaRepository;
+    @PersistenceContext
+    EntityManager em;
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    int batchSize;
 
     @Test
     public void testMember() {
@@ -114,4 +126,33 @@ class MemberJpaRepositoryTest {
         assertThat(resultCount).isEqualTo(3);
     }
 
-}
\ No newline at end of file
+    /**
+     * JDBC batch insert
+     *  - batchSize 건마다 flush/clear 하므로 영속성 컨텍스트에 batchSize 건(+ 팀) 넘게 쌓이지 않는다.
+     *  - 저장되지 않은 팀은 먼저 저장되어 모든 회원이 팀 id를 가진다.
+     *  - 건별 저장과의 처리량 비교는 BulkInsertBenchmark(src/jmh)
+     */
+    @Test
+    void saveAllBatched() {
+        // given
+        int rows = 1_000;
+        TeamEntity team = new TeamEntity("teamA");
+        AtomicInteger maxManaged = new AtomicInteger();
+        Stream<MemberEntity> members = IntStream.range(0, rows)
+                .mapToObj(i -> new MemberEntity("batch" + i, i % 100, team))
+                .peek(m -> maxManaged.accumulateAndGet(em.unwrap(Session.class).getStatistics().getEntityCount(), Math::max));
+
+        // when
+        long saved = memberJpaRepository.saveAllBatched(members);
+
+        // then
+        assertThat(saved).isEqualTo(rows);
+        assertThat(team.getId()).isNotNull();
+        assertThat(maxManaged.get()).isLessThanOrEqualTo(batchSize + 1);
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+        assertThat(em.createQuery("select count(m) from MemberEntity m where m.team.id = :teamId", Long.class)
+                .setParameter("teamId", team.getId())
+                .getSingleResult()).isEqualTo(rows);
+    }
+
+}
@@ -1,24 +1,50 @@
 package study.datajpa.repository;
 
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.MemberEntity;
 import study.datajpa.entity.TeamEntity;
+import study.datajpa.repository.bulk.BulkUpdateResult;
+import study.datajpa.repository.bulk.ChunkedBulkUpdater;
+import study.datajpa.repository.count.CountMode;
+import study.datajpa.repository.count.PageCountCache;
+import study.datajpa.repository.keyset.InvalidKeysetException;
+import study.datajpa.repository.keyset.KeysetSlice;
 import study.datajpa.repository.projection.MemberProjection;
 import study.datajpa.repository.projection.NestedClosedProjections;
+import study.datajpa.repository.projection.UsernameOnlyDto;
 import study.datajpa.repository.specification.MemberSpec;
+import study.datajpa.repository.specification.MemberSpecCompiler;
+import study.datajpa.repository.specification.MemberSpecTerm;
+import study.datajpa.support.sql.SqlStatementRecorder;
+import study.datajpa.support.sql.SqlStatementReport;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 @Transactional
@@ -28,6 +54,12 @@ class MemberRepositoryTest {
     MemberRepository memberRepository;
     @Autowired
     TeamRepository teamRepository;
+    @Autowired
+    PageCountCache pageCountCache;
+    @Autowired
+    MemberSpecCompiler specCompiler;
+    @Autowired
+    ChunkedBulkUpdater bulkUpdater;
     @PersistenceContext
     EntityManager em;
 
@@ -157,6 +189,205 @@ class MemberRepositoryTest {
         assertThat(page.hasNext()).isTrue();
     }
 
+    /**
+     * id Keyset으로 끝까지 미리 읽기
+     *  - 읽는 도중 앞쪽 id의 회원을 지워도 이후 회원을 건너뛰지 않는다.(offset 페이징이면 한 페이지가 밀린다)
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void streamSliceByAge() {
+        // given
+        List<MemberEntity> members = memberRepository.saveAll(IntStream.rangeClosed(1, 25)
+                .mapToObj(i -> new MemberEntity("slice" + i, 77))
+                .collect(Collectors.toList()));
+        try {
+            // when
+            List<String> usernames = new ArrayList<>();
+            try (Stream<MemberEntity> stream = memberRepository.streamSliceByAge(77, 5, 1)) {
+                Iterator<MemberEntity> iterator = stream.iterator();
+                for (int i = 0; i < 5; i++) {
+                    usernames.add(iterator.next().getUsername());
+                }
+                memberRepository.deleteAllInBatch(members.subList(0, 5));
+                iterator.forEachRemaining(m -> usernames.add(m.getUsername()));
+            }
+
+            // then
+            assertThat(usernames).containsExactlyElementsOf(members.stream()
+                    .map(MemberEntity::getUsername)
+                    .collect(Collectors.toList()));
+        } finally {
+            memberRepository.deleteAllInBatch(members.subList(5, members.size()));
+        }
+    }
+
+    /**
+     * Page count 캐시 Test
+     *  - CACHED 모드에서는 TTL 동안 이전 count를 사용하고, bulk update가 실행되면 무효화된다.
+     */
+    @Test
+    void cachedCount() {
+        // given
+        pageCountCache.invalidateAll();
+        memberRepository.save(new MemberEntity("member1", 10));
+        memberRepository.save(new MemberEntity("member2", 10));
+        PageRequest pageRequest = PageRequest.of(0, 1);
+
+        // when
+        Page<MemberEntity> first = memberRepository.findPageByAge(10, pageRequest, CountMode.CACHED);
+        memberRepository.save(new MemberEntity("member3", 10));
+        Page<MemberEntity> cached = memberRepository.findPageByAge(10, pageRequest, CountMode.CACHED);
+        Page<MemberEntity> exact = memberRepository.findPageByAge(10, pageRequest, CountMode.EXACT);
+        memberRepository.bulkAgePlus(100);
+        Page<MemberEntity> invalidated = memberRepository.findPageByAge(10, pageRequest, CountMode.CACHED);
+
+        // then
+        assertThat(first.getTotalElements()).isEqualTo(2);
+        assertThat(cached.getTotalElements()).isEqualTo(2);
+        assertThat(exact.getTotalElements()).isEqualTo(3);
+        assertThat(invalidated.getTotalElements()).isEqualTo(3);
+    }
+
+    /**
+     * Keyset 페이징 Test
+     */
+    @Test
+    void keyset() {
+        // given
+        memberRepository.save(new MemberEntity("member1", 10));
+        memberRepository.save(new MemberEntity("member2", 10));
+        memberRepository.save(new MemberEntity("member3", 10));
+        memberRepository.save(new MemberEntity("member4", 10));
+        memberRepository.save(new MemberEntity("member5", 10));
+
+        PageRequest pageRequest = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "username"));
+
+        // when
+        KeysetSlice<MemberEntity> first = memberRepository.findAllByKeyset(null, pageRequest);
+        KeysetSlice<MemberEntity> second = memberRepository.findAllByKeyset(first.getNextCursor(), pageRequest);
+        KeysetSlice<MemberEntity> last = memberRepository.findAllByKeyset(second.getNextCursor(), pageRequest);
+
+        // then
+        assertThat(first.getContent()).extracting("username").containsExactly("member5", "member4");
+        assertThat(second.getContent()).extracting("username").containsExactly("member3", "member2");
+        assertThat(last.getContent()).extracting("username").containsExactly("member1");
+        assertThat(last.hasNext()).isFalse();
+        // 정렬 조건이 다른 커서는 사용할 수 없다.(Repository 프록시가 IllegalArgumentException을 변환)
+        assertThatThrownBy(() -> memberRepository.findAllByKeyset(first.getNextCursor(), PageRequest.of(0, 2)))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);
+    }
+
+    /**
+     * 변조된 커서(문자열이 아닌 키 값, 깨진 Base64, 숫자가 아닌 id), 지원하지 않는 정렬 속성은 InvalidKeysetException(400)
+     */
+    @Test
+    void keysetInvalidCursor() {
+        // given
+        PageRequest pageRequest = PageRequest.of(0, 2, Sort.by("username"));
+        String numbers = cursor("{\"s\":\"username:ASC,id:ASC\",\"v\":[1,2]}");
+        String notNumber = cursor("{\"s\":\"username:ASC,id:ASC\",\"v\":[\"member1\",\"x\"]}");
+
+        // when, then
+        for (String cursor : List.of(numbers, notNumber, "not-a-cursor!")) {
+            assertThatThrownBy(() -> memberRepository.findAllByKeyset(cursor, pageRequest))
+                    .as(cursor)
+                    .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                    .hasCauseInstanceOf(InvalidKeysetException.class);
+        }
+        assertThatThrownBy(() -> memberRepository.findAllByKeyset(null, PageRequest.of(0, 2, Sort.by("team"))))
+                .hasCauseInstanceOf(InvalidKeysetException.class);
+    }
+
+    /**
+     * 정렬 키가 null인 회원도 건너뛰거나 중복되지 않는다.(null은 가장 작은 값: asc에서 처음, desc에서 마지막)
+     */
+    @Test
+    void keysetNullSortKeys() {
+        // given
+        for (String username : Arrays.asList(null, "a", null, "b", "c")) {
+            memberRepository.save(new MemberEntity(username, 10));
+        }
+
+        for (Sort.Direction direction : Sort.Direction.values()) {
+            // when
+            PageRequest pageRequest = PageRequest.of(0, 2, Sort.by(direction, "username"));
+            List<String> usernames = new ArrayList<>();
+            String cursor = null;
+            do {
+                KeysetSlice<MemberEntity> slice = memberRepository.findAllByKeyset(cursor, pageRequest);
+                slice.getContent().forEach(m -> usernames.add(m.getUsername()));
+                cursor = slice.getNextCursor();
+            } while (cursor != null);
+
+            // then
+            assertThat(usernames).as(direction.name()).isEqualTo(direction.isAscending()
+                    ? Arrays.asList(null, null, "a", "b", "c")
+                    : Arrays.asList("c", "b", "a", null, null));
+        }
+    }
+
+    private static String cursor(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Stream 조회
+     *  - 다음 회원을 읽을 때 직전 회원을 분리하기 때문에 조회 건수와 관계없이 관리되는 엔티티 수가 일정하다.
+     *  - 처리 중인 회원은 지연로딩(team)을 사용할 수 있다.
+     */
+    @Test
+    void streamAll() {
+        // given
+        TeamEntity team = teamRepository.save(new TeamEntity("teamA"));
+        for (int i = 1; i <= 5; i++) {
+            memberRepository.save(new MemberEntity("member" + i, 10, team));
+        }
+        em.flush();
+        em.clear();
+
+        // when
+        List<String> usernames = new ArrayList<>();
+        int maxManaged = 0;
+        try (Stream<MemberEntity> members = memberRepository.streamAll(2)) {
+            for (MemberEntity member : (Iterable<MemberEntity>) members::iterator) {
+                usernames.add(member.getUsername() + "@" + member.getTeam().getName());
+                maxManaged = Math.max(maxManaged, em.unwrap(Session.class).getStatistics().getEntityCount());
+            }
+        }
+
+        // then
+        assertThat(usernames).containsExactly("member1@teamA", "member2@teamA", "member3@teamA", "member4@teamA", "member5@teamA");
+        assertThat(maxManaged).isLessThanOrEqualTo(2);
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isEqualTo(1);
+    }
+
+    /**
+     * Stream 조회 - 호출 전부터 관리되던 회원과 flush 전 변경은 유지된다.
+     */
+    @Test
+    void streamAllKeepsCallerChanges() {
+        // given
+        for (int i = 1; i <= 5; i++) {
+            memberRepository.save(new MemberEntity("member" + i, 10));
+        }
+        em.flush();
+        em.clear();
+        MemberEntity member1 = memberRepository.findByUsername("member1").get(0);
+        member1.addAge(5);
+
+        // when
+        try (Stream<MemberEntity> members = memberRepository.streamAll(2)) {
+            assertThat(members.count()).isEqualTo(5);
+        }
+        em.flush();
+        em.clear();
+
+        // then
+        assertThat(memberRepository.findByUsername("member1").get(0).getAge()).isEqualTo(15);
+        assertThatThrownBy(() -> memberRepository.streamAll(0))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);
+    }
+
     /**
      * Spring Data JPA Bulk Update Query test
      */
@@ -187,6 +418,104 @@ class MemberRepositoryTest {
         assertThat(resultCount).isEqualTo(3);
     }
 
+    /**
+     * Chunk 단위 Bulk Update
+     *  - chunk마다 커밋하므로 테스트 트랜잭션 없이 실행하고 직접 정리한다.
+     *  - 마지막 id 이후로 다시 실행하면 더 이상 갱신할 행이 없다.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void bulkUpdateChunked() {
+        // given
+        List<MemberEntity> members = memberRepository.saveAll(IntStream.rangeClosed(1, 25)
+                .mapToObj(i -> new MemberEntity("chunk" + i, i))
+                .collect(Collectors.toList()));
+        List<Long> ids = members.stream().map(MemberEntity::getId).collect(Collectors.toList());
+        try {
+            // when
+            BulkUpdateResult result = memberRepository.bulkAgePlusChunked(20, 10, ids.get(0) - 1);
+            BulkUpdateResult resumed = memberRepository.bulkAgePlusChunked(20, 10, result.getLastId());
+
+            // then
+            assertThat(result.getRows()).isEqualTo(6);
+            assertThat(result.getChunks()).isEqualTo(3);
+            assertThat(result.getLastId()).isEqualTo(ids.get(24));
+            assertThat(resumed.getRows()).isZero();
+            assertThat(memberRepository.findAllById(ids))
+                    .filteredOn(m -> m.getAge() >= 20)
+                    .extracting(MemberEntity::getAge)
+                    .containsOnly(21, 22, 23, 24, 25, 26);
+        } finally {
+            memberRepository.deleteAllInBatch(members);
+        }
+    }
+
+    /**
+     * id 사이가 비어 있어도 chunk는 실제 행 chunkSize 개씩이다.(id 산술 범위가 아니므로 빈 chunk가 없다)
+     *  - 진행 위치와 처리량은 작업 이름별 통계로 남는다.
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void bulkUpdateChunkedSparseIds() {
+        // given
+        List<MemberEntity> members = memberRepository.saveAll(IntStream.rangeClosed(1, 25)
+                .mapToObj(i -> new MemberEntity("sparse" + i, 20))
+                .collect(Collectors.toList()));
+        List<MemberEntity> kept = List.of(members.get(0), members.get(1), members.get(2), members.get(23), members.get(24));
+        List<MemberEntity> gap = new ArrayList<>(members.subList(3, 23));
+        memberRepository.deleteAllInBatch(gap);
+        long chunksBefore = bulkUpdater.getStats().containsKey("Member.bulkAgePlus")
+                ? bulkUpdater.getStats().get("Member.bulkAgePlus").getChunks().sum() : 0;
+        try {
+            // when
+            BulkUpdateResult result = memberRepository.bulkAgePlusChunked(20, 2, members.get(0).getId() - 1);
+
+            // then
+            assertThat(result.getRows()).isEqualTo(5);
+            assertThat(result.getChunks()).isEqualTo(3);
+            assertThat(result.getLastId()).isEqualTo(members.get(24).getId());
+            ChunkedBulkUpdater.Stats stats = bulkUpdater.getStats().get("Member.bulkAgePlus");
+            assertThat(stats.getChunks().sum() - chunksBefore).isEqualTo(3);
+            assertThat(stats.getLastId()).isEqualTo(members.get(24).getId());
+        } finally {
+            memberRepository.deleteAllInBatch(kept);
+        }
+    }
+
+    /**
+     * chunk마다 커밋하므로 트랜잭션 안에서는 실행할 수 없다.
+     */
+    @Test
+    void bulkUpdateChunkedInsideTransaction() {
+        memberRepository.save(new MemberEntity("member1", 20));
+
+        assertThatThrownBy(() -> memberRepository.bulkAgePlusChunked(20, 10, null))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);
+    }
+
+    /**
+     * 2차 캐시
+     *  - Bulk Update는 MemberEntity 캐시 영역을 비우기 때문에 이후 조회에서 변경 전 나이가 보이지 않는다.
+     */
+    @Test
+    void secondLevelCache() {
+        // given
+        MemberEntity member = memberRepository.save(new MemberEntity("member1", 10));
+        em.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        long putCount = statistics.getSecondLevelCachePutCount();
+        memberRepository.findById(member.getId());  // DB 조회 후 2차 캐시에 저장
+
+        // when
+        memberRepository.bulkAgePlus(10);
+        MemberEntity foundMember = memberRepository.findById(member.getId()).get();
+
+        // then
+        assertThat(statistics.getSecondLevelCachePutCount()).isGreaterThan(putCount);
+        assertThat(foundMember.getAge()).isEqualTo(11);
+    }
+
     /**
      * EntityGraph
      */
@@ -219,6 +548,35 @@ class MemberRepositoryTest {
         }
     }
 
+    /**
+     * N+1 감지
+     *  - 지연로딩된 team을 회원마다 조회하면 같은 형태의 SQL이 회원 수만큼 실행된다.
+     *  - Fetch Join은 한번에 조회한다.
+     */
+    @Test
+    void detectNPlusOne() {
+        // given
+        for (int i = 0; i < 5; i++) {
+            TeamEntity team = new TeamEntity("team" + i);
+            em.persist(team);
+            em.persist(new MemberEntity("member" + i, 10, team));
+        }
+        em.flush();
+        em.clear();
+
+        // when
+        SqlStatementReport lazy = SqlStatementRecorder.record(
+                () -> memberRepository.findPageByAge(10).forEach(m -> m.getTeam().getName()));
+        em.clear();
+        SqlStatementReport fetchJoin = SqlStatementRecorder.record(
+                () -> memberRepository.findMemberFetchJoin().forEach(m -> m.getTeam().getName()));
+
+        // then
+        assertThat(lazy.getTotal()).isEqualTo(6);
+        assertThatThrownBy(() -> lazy.assertNoRepeatedStatements(3)).isInstanceOf(AssertionError.class);
+        fetchJoin.assertStatementCountAtMost(1).assertNoRepeatedStatements(2);
+    }
+
     /**
      * JPA Hint
      *  - readOnly
@@ -310,6 +668,23 @@ class MemberRepositoryTest {
         System.out.println("foundMember.getLastModifiedDate() = " + foundMember.getLastModifiedDate());
     }
 
+    /**
+     * 같은 트랜잭션, 같은 flush에서 저장된 엔티티는 작성자와 작성 시각을 공유한다.
+     */
+    @Test
+    void auditSharedInTransaction() {
+        // given
+        MemberEntity memberA = memberRepository.save(new MemberEntity("memberA", 20));
+        MemberEntity memberB = memberRepository.save(new MemberEntity("memberB", 30));
+
+        // when
+        em.flush();
+
+        // then
+        assertThat(memberA.getCreateBy()).isNotNull().isEqualTo(memberB.getCreateBy());
+        assertThat(memberA.getCreatedDate()).isNotNull().isEqualTo(memberB.getCreatedDate());
+    }
+
     /**
      * Specification
      *  - JPA Criteria Specification을 파라미터로 넘겨서 조회할 수 있도록 스프링 데이터 JPA에서 제공하는 기능
@@ -337,6 +712,134 @@ class MemberRepositoryTest {
         assertThat(result.size()).isEqualTo(1);
     }
 
+    /**
+     * DTO 직접 조회
+     *  - 결과 행에서 바로 DTO를 만들어 영속성 컨텍스트에 엔티티가 추가되지 않는다.
+     */
+    @Test
+    void dtoDirect() {
+        // given
+        memberRepository.save(new MemberEntity("member1", 10));
+        memberRepository.save(new MemberEntity("member2", 20));
+        memberRepository.save(new MemberEntity("member3", 30));
+        em.flush();
+        em.clear();
+
+        // when
+        Page<MemberDto> page = memberRepository.findDtoPage(
+                PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "username")), CountMode.EXACT);
+        List<UsernameOnlyDto> usernames = memberRepository.findUsernameDtoByUsername("member2");
+
+        // then
+        assertThat(page.getContent()).extracting(MemberDto::getUsername).containsExactly("member3", "member2");
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(usernames).extracting(UsernameOnlyDto::getUsername).containsExactly("member2");
+        assertThat(em.unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    /**
+     * MemberSpecCompiler
+     *  - 같은 조건 조합(shape)은 캐시된 JPQL을 사용하고, teamName 조건이 비어있으면 팀 조인을 하지 않는다.
+     */
+    @Test
+    void specCompiled() {
+        // given
+        TeamEntity teamA = new TeamEntity("teamA");
+        em.persist(teamA);
+        em.persist(new MemberEntity("memberA", 10, teamA));
+        em.persist(new MemberEntity("memberB", 10, teamA));
+        em.flush();
+        em.clear();
+        MemberSpecCompiler.Stats before = specCompiler.getStats();
+
+        // when
+        List<MemberEntity> joined = memberRepository.findAllBySpec(MemberSpec.username("memberA"), MemberSpec.teamName("teamA"));
+        List<MemberEntity> swapped = memberRepository.findAllBySpec(MemberSpec.teamName("teamA"), MemberSpec.username("memberB"));
+        SqlStatementReport report = SqlStatementRecorder.record(
+                () -> memberRepository.findAllBySpec(MemberSpec.username("memberA"), MemberSpec.teamName("")));
+
+        // then
+        MemberSpecCompiler.Stats after = specCompiler.getStats();
+        assertThat(joined).extracting(MemberEntity::getUsername).containsExactly("memberA");
+        assertThat(swapped).extracting(MemberEntity::getUsername).containsExactly("memberB");
+        assertThat(after.getHits() - before.getHits()).isGreaterThanOrEqualTo(1);
+        assertThat(report.getStatements().keySet()).isNotEmpty().allMatch(sql -> !sql.toLowerCase().contains(" join "));
+    }
+
+    /**
+     * 조건 검색 + Keyset 페이징
+     *  - 접두어의 _는 와일드카드가 아니라 문자로 검색한다.
+     *  - 페이지마다 SQL 한번(count 쿼리 없음)
+     */
+    @Test
+    void searchByKeyset() {
+        // given
+        TeamEntity teamA = new TeamEntity("teamA");
+        em.persist(teamA);
+        for (int i = 0; i < 10; i++) {
+            em.persist(new MemberEntity("m_" + i, 10 + i, teamA));
+            em.persist(new MemberEntity("mx" + i, 10 + i, teamA));
+        }
+        em.flush();
+        em.clear();
+        List<MemberSpecTerm> terms = List.of(MemberSpec.usernameStartsWith("m_"), MemberSpec.ageGoe(12),
+                MemberSpec.ageLoe(17), MemberSpec.teamName("teamA"), MemberSpec.createdFrom(null));
+        Pageable pageable = PageRequest.of(0, 4, Sort.by(Sort.Direction.DESC, "age"));
+
+        // when
+        List<String> usernames = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String current = cursor;
+            List<KeysetSlice<MemberEntity>> slice = new ArrayList<>();
+            SqlStatementReport report = SqlStatementRecorder.record(
+                    () -> slice.add(memberRepository.searchByKeyset(terms, current, pageable)));
+            report.assertStatementCountAtMost(1);
+            slice.get(0).getContent().forEach(m -> usernames.add(m.getUsername()));
+            cursor = slice.get(0).getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        // then
+        assertThat(usernames).containsExactly("m_7", "m_6", "m_5", "m_4", "m_3", "m_2");
+        assertThat(pages).isEqualTo(2);
+    }
+
+    /**
+     * 가입일 범위 검색: createdFrom 이상, createdTo 미만(상한 제외) + 가입일 Keyset 페이징
+     */
+    @Test
+    void searchByKeysetCreatedDateRange() {
+        // given
+        LocalDateTime base = LocalDateTime.of(2020, 1, 1, 0, 0);
+        for (int i = 0; i < 5; i++) {
+            em.persist(new MemberEntity("c" + i, 10));
+        }
+        em.flush();
+        for (int i = 0; i < 5; i++) {
+            em.createNativeQuery("update member set created_date = ? where username = ?")
+                    .setParameter(1, base.plusDays(i))
+                    .setParameter(2, "c" + i)
+                    .executeUpdate();
+        }
+        em.clear();
+        List<MemberSpecTerm> terms = List.of(MemberSpec.createdFrom(base.plusDays(1)), MemberSpec.createdTo(base.plusDays(3)));
+        Pageable pageable = PageRequest.of(0, 1, Sort.by("createdDate"));
+
+        // when
+        List<String> usernames = new ArrayList<>();
+        String cursor = null;
+        do {
+            KeysetSlice<MemberEntity> slice = memberRepository.searchByKeyset(terms, cursor, pageable);
+            slice.getContent().forEach(m -> usernames.add(m.getUsername()));
+            cursor = slice.getNextCursor();
+        } while (cursor != null);
+
+        // then
+        assertThat(usernames).containsExactly("c1", "c2");
+    }
+
     /**
      * QueryByExample
      *  - JpaRepository에서 기본적으로 상속받아 구현됨
@@ -429,4 +932,38 @@ class MemberRepositoryTest {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Native 페이징
+     *  - 팀 10개 x 회원 100명 + 팀 없는 회원 50명
+     *  - 조인 조건이 빠지면(카티션 곱) 회원 수보다 많은 행을 읽게 되므로 읽은 행 수로 확인한다.
+     */
+    @Test
+    void nativeProjectionPage() {
+        // given
+        List<TeamEntity> teams = teamRepository.saveAll(IntStream.range(0, 10)
+                .mapToObj(i -> new TeamEntity("team" + i))
+                .collect(Collectors.toList()));
+        memberRepository.saveAll(IntStream.range(0, 1050)
+                .mapToObj(i -> new MemberEntity("member" + i, i % 100, i < 1000 ? teams.get(i % 10) : null))
+                .collect(Collectors.toList()));
+        em.flush();
+        em.clear();
+
+        // when
+        List<Page<MemberProjection>> pages = new ArrayList<>();
+        SqlStatementReport all = SqlStatementRecorder.record(
+                () -> pages.add(memberRepository.findNativeProjectionPage(Pageable.unpaged())));
+        SqlStatementReport firstPage = SqlStatementRecorder.record(
+                () -> pages.add(memberRepository.findNativeProjectionPage(PageRequest.of(0, 20, Sort.by("teamName", "id")))));
+        Page<MemberProjection> springData = memberRepository.findByNativeProjection(PageRequest.of(0, 20));
+
+        // then
+        assertThat(pages.get(0).getContent()).hasSize(1050);
+        all.assertRowsReadAtMost(1050, 1.0);
+        assertThat(pages.get(1).getContent()).hasSize(20);
+        assertThat(pages.get(1).getTotalElements()).isEqualTo(1050);
+        firstPage.assertRowsReadAtMost(20 + 1, 1.0);
+        assertThat(springData.getTotalElements()).isEqualTo(1050);
+        assertThat(springData.getContent()).hasSize(20);
+    }
+}
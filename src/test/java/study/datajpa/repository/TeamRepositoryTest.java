@@ -0,0 +1,161 @@
+package study.datajpa.repository;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.entity.TeamEntity;
+import study.datajpa.support.sql.SqlStatementRecorder;
+import study.datajpa.support.sql.SqlStatementReport;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class TeamRepositoryTest {
+
+    @Autowired
+    TeamRepository teamRepository;
+    @PersistenceContext
+    EntityManager em;
+
+    /**
+     * 여러 팀의 회원 조회
+     *  - 팀 수와 관계없이 IN 쿼리 한번으로 조회한다.
+     */
+    @Test
+    void findMembersByTeamIds() {
+        for (int teams : new int[]{5, 50}) {
+            // given
+            List<Long> teamIds = saveTeams(teams, 3);
+            em.flush();
+            em.clear();
+
+            // when
+            AtomicReference<Map<Long, List<MemberEntity>>> members = new AtomicReference<>();
+            SqlStatementReport report = SqlStatementRecorder.record(
+                    () -> members.set(teamRepository.findMembersByTeamIds(teamIds)));
+
+            // then
+            assertThat(report.getTotal()).isEqualTo(1);
+            assertThat(members.get()).hasSize(teams);
+            assertThat(members.get().values()).allSatisfy(list -> assertThat(list).hasSize(3));
+        }
+    }
+
+    /**
+     * BatchSize
+     *  - 지연로딩된 members 컬렉션을 초기화할 때 다른 팀의 컬렉션도 IN 쿼리로 함께 초기화한다.
+     */
+    @Test
+    void batchFetchMembers() {
+        // given
+        List<Long> teamIds = saveTeams(20, 3);
+        em.flush();
+        em.clear();
+
+        // when
+        SqlStatementReport report = SqlStatementRecorder.record(() -> {
+            for (TeamEntity team : teamRepository.findAllById(teamIds)) {
+                assertThat(team.getMembers()).hasSize(3);
+            }
+        });
+
+        // then
+        report.assertStatementCountAtMost(2);
+    }
+
+    @Test
+    void findWithMembersByIdIn() {
+        // given
+        List<Long> teamIds = saveTeams(10, 3);
+        em.flush();
+        em.clear();
+
+        // when
+        AtomicReference<List<TeamEntity>> teams = new AtomicReference<>();
+        SqlStatementReport report = SqlStatementRecorder.record(() -> {
+            teams.set(teamRepository.findWithMembersByIdIn(teamIds));
+            teams.get().forEach(team -> team.getMembers().size());
+        });
+
+        // then
+        assertThat(teams.get()).hasSize(10);
+        assertThat(report.getTotal()).isEqualTo(1);
+    }
+
+    /**
+     * 팀 변경 - 로딩된 컬렉션이면 이전 팀에서 빼고 새 팀에 넣는다.
+     */
+    @Test
+    void changeTeam() {
+        // given
+        TeamEntity teamA = new TeamEntity("teamA");
+        TeamEntity teamB = new TeamEntity("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        MemberEntity member = new MemberEntity("member1", 10);
+        member.changeTeam(teamA);
+        em.persist(member);
+
+        // when
+        member.changeTeam(teamB);
+        member.changeTeam(teamB);
+
+        // then
+        assertThat(teamA.getMembers()).isEmpty();
+        assertThat(teamB.getMembers()).containsExactly(member);
+    }
+
+    /**
+     * 팀 변경 - 초기화 전 members는 읽지 않는다.(초기화되면 flush된 team_id 기준으로 채워진다)
+     */
+    @Test
+    void changeTeamWithoutInitializingMembers() {
+        // given
+        List<Long> teamIds = saveTeams(2, 100);
+        em.flush();
+        em.clear();
+        TeamEntity teamA = teamRepository.findById(teamIds.get(0)).orElseThrow();
+        TeamEntity teamB = teamRepository.findById(teamIds.get(1)).orElseThrow();
+        MemberEntity member = em.createQuery("select m from MemberEntity m where m.team = :team", MemberEntity.class)
+                .setParameter("team", teamA)
+                .setMaxResults(1)
+                .getSingleResult();
+
+        // when
+        SqlStatementReport report = SqlStatementRecorder.record(() -> member.changeTeam(teamB));
+        em.flush();
+
+        // then
+        assertThat(report.getTotal()).isZero();
+        assertThat(Hibernate.isInitialized(teamA.getMembers())).isFalse();
+        assertThat(Hibernate.isInitialized(teamB.getMembers())).isFalse();
+        assertThat(teamB.getMembers().size()).isEqualTo(101);
+        assertThat(teamB.getMembers().contains(member)).isTrue();
+        assertThat(teamA.getMembers().size()).isEqualTo(99);
+        assertThat(teamA.getMembers().contains(member)).isFalse();
+    }
+
+    private List<Long> saveTeams(int teams, int membersPerTeam) {
+        List<Long> teamIds = new ArrayList<>();
+        for (int i = 0; i < teams; i++) {
+            TeamEntity team = new TeamEntity("team" + i);
+            em.persist(team);
+            for (int j = 0; j < membersPerTeam; j++) {
+                em.persist(new MemberEntity("member" + i + "_" + j, 10, team));
+            }
+            teamIds.add(team.getId());
+        }
+        return teamIds;
+    }
+}
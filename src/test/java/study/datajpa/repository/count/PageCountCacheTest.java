@@ -0,0 +1,108 @@
+package study.datajpa.repository.count;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PageCountCacheTest {
+
+    PageCountCache cache = new PageCountCache(Duration.ofMinutes(1), 3, CountMode.ASYNC);
+
+    @AfterEach
+    void shutdown() {
+        cache.shutdown();
+    }
+
+    /**
+     * ASYNC: 처음에는 lowerBound를 반환하고 백그라운드 갱신이 끝나면 실제 count를 반환한다.
+     */
+    @Test
+    void asyncRefresh() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        LongSupplier counter = blocking(release, calls, 42);
+
+        // when
+        long first = cache.count("members", CountMode.ASYNC, 11, counter);
+        long whileRefreshing = cache.count("members", CountMode.ASYNC, 11, counter);
+        release.countDown();
+
+        // then
+        assertThat(first).isEqualTo(11);
+        assertThat(whileRefreshing).isEqualTo(11);
+        assertThat(awaitCount(counter, 42)).isEqualTo(42);
+        assertThat(calls.get()).isEqualTo(1);
+    }
+
+    /**
+     * 갱신 중에 invalidateAll() 되면 이전 세대의 갱신 결과는 버린다.
+     */
+    @Test
+    void discardRefreshFromPreviousGeneration() throws Exception {
+        // given
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        LongSupplier stale = blocking(release, calls, 42);
+        assertThat(cache.count("members", CountMode.ASYNC, 11, stale)).isEqualTo(11);
+
+        // when
+        cache.invalidateAll();
+        release.countDown();
+        while (calls.get() == 0) {
+            Thread.sleep(5);
+        }
+        Thread.sleep(50);
+
+        // then
+        assertThat(cache.size()).isZero();
+        assertThat(awaitCount(() -> 7, 7)).isEqualTo(7);
+    }
+
+    /**
+     * 파라미터마다 항목이 생겨도 max-entries 개까지만 보관한다.
+     */
+    @Test
+    void bounded() {
+        for (int age = 0; age < 100; age++) {
+            assertThat(cache.count("membersByAge", CountMode.CACHED, 0, () -> 1, age)).isEqualTo(1);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(3);
+    }
+
+    private static LongSupplier blocking(CountDownLatch release, AtomicInteger calls, long value) {
+        return () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            calls.incrementAndGet();
+            return value;
+        };
+    }
+
+    /**
+     * 갱신이 반영될 때까지(최대 5초) ASYNC로 다시 조회
+     */
+    private long awaitCount(LongSupplier counter, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        long value;
+        do {
+            value = cache.count("members", CountMode.ASYNC, -1, counter);
+            if (value == expected) {
+                return value;
+            }
+            Thread.sleep(10);
+        } while (System.nanoTime() < deadline);
+        return value;
+    }
+}
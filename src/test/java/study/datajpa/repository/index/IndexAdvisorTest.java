@@ -0,0 +1,56 @@
+package study.datajpa.repository.index;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.MemberEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class IndexAdvisorTest {
+
+    @Autowired
+    IndexAdvisor indexAdvisor;
+
+    /**
+     * username, age 조건의 파생 쿼리와 NamedQuery는 모두 MemberEntity의 @Index를 탄다.
+     */
+    @Test
+    void memberFindersUseIndexes() {
+        // when
+        Map<String, IndexAdvice> advices = indexAdvisor.advise().stream()
+                .collect(Collectors.toMap(IndexAdvice::getQuery, Function.identity(), (a, b) -> a));
+
+        // then
+        assertThat(advices.get("MemberRepository.findByUsername").getColumns()).containsExactly("username");
+        assertThat(advices.get("MemberRepository.findByUsernameAndAgeGreaterThan").getColumns()).containsExactly("username", "age");
+        assertThat(advices.get("Member.findByAge").getColumns()).containsExactly("age");
+        for (String query : List.of("MemberRepository.findByUsername", "MemberRepository.findByUsernameAndAgeGreaterThan",
+                "MemberRepository.findSliceByAge", "MemberRepository.findTop3ByAge", "Member.findByAge")) {
+            assertThat(advices.get(query).isIndexUsed()).as(query).isTrue();
+            assertThat(advices.get(query).needsIndex()).as(query).isFalse();
+        }
+    }
+
+    /**
+     * 파생 쿼리 이름 -> JPQL, SQL 조건 -> 권장 인덱스 DDL
+     */
+    @Test
+    void suggestIndex() throws Exception {
+        // given
+        String jpql = IndexAdvisor.derivedJpql("MemberEntity", MemberEntity.class, "findByCreatedDateAfterOrderByIdDesc");
+
+        // then
+        assertThat(jpql).isEqualTo("select e from MemberEntity e where e.createdDate > :p0 order by e.id desc");
+        IndexAdvice advice = IndexAdvisor.analyze("test",
+                "select m.member_id from member m where m.created_date>? order by m.member_id desc", null);
+        assertThat(advice.getColumns()).containsExactly("created_date");
+        assertThat(advice.ddl()).isEqualTo("create index idx_member_created_date on member (created_date)");
+    }
+}
@@ -0,0 +1,95 @@
+package study.datajpa.repository.lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 비관적 락 vs 낙관적 락(재시도)
+ *  - 트랜잭션 밖에서 여러 스레드가 한 회원의 나이를 1씩 올린다.
+ *  - 성공한 호출 수와 나이 합계가 같아야 한다.(갱신 손실 없음)
+ *  - 경합 정도(hot 회원 수)별 처리량, p99 비교는 LockingBenchmark(src/jmh)
+ */
+@SpringBootTest
+class LockingModeTest {
+
+    private static final int THREADS = 4;
+    private static final int CALLS_PER_THREAD = 20;
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    OptimisticRetryTemplate optimisticRetryTemplate;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanup() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void noLostUpdates() throws Exception {
+        for (LockingMode mode : LockingMode.values()) {
+            // given
+            memberRepository.save(new MemberEntity("hot", 0));
+            AtomicInteger succeeded = new AtomicInteger();
+            AtomicInteger exhausted = new AtomicInteger();
+
+            // when
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < CALLS_PER_THREAD; i++) {
+                        try {
+                            succeeded.addAndGet(memberRepository.addAgeByUsername("hot", 1, mode));
+                        } catch (OptimisticLockingFailureException e) {
+                            exhausted.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+            // then
+            int ages = memberRepository.findAll().stream().mapToInt(MemberEntity::getAge).sum();
+            assertThat(ages).isEqualTo(succeeded.get());
+            assertThat(succeeded.get() + exhausted.get()).isEqualTo(THREADS * CALLS_PER_THREAD);
+            memberRepository.deleteAllInBatch();
+        }
+        assertThat(optimisticRetryTemplate.getStats()).containsKey("Member.addAgeByUsername");
+    }
+
+    /**
+     * 재시도마다 새 트랜잭션이 필요하므로 바깥 트랜잭션 안에서는 실행할 수 없다.
+     */
+    @Test
+    void optimisticInsideTransaction() {
+        assertThatThrownBy(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                memberRepository.addAgeByUsername("member1", 1, LockingMode.OPTIMISTIC)))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class);
+    }
+}
@@ -0,0 +1,123 @@
+package study.datajpa.repository.slice;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PrefetchingSliceIteratorTest {
+
+    static final int TOTAL = 95;
+
+    /**
+     * SlicePrefetchExecutor처럼 크기가 제한된 조회 스레드
+     */
+    static final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterAll
+    static void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 페이지 순서대로 모든 항목을 반환한다.
+     */
+    @Test
+    void stream() {
+        try (Stream<Integer> stream = PrefetchingSliceIterator.stream(
+                previous -> loader(new AtomicInteger(), null).apply(previous == null ? PageRequest.of(0, 10) : previous.nextPageable()), 2, executor)) {
+            assertThat(stream.collect(Collectors.toList()))
+                    .containsExactlyElementsOf(IntStream.range(0, TOTAL).boxed().collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * 소비하지 않으면 lookahead 페이지까지만 미리 조회하고, close 하면 더 조회하지 않는다.
+     */
+    @Test
+    void boundedLookaheadAndClose() throws Exception {
+        // given
+        AtomicInteger loaded = new AtomicInteger();
+        PrefetchingSliceIterator<Integer> iterator = new PrefetchingSliceIterator<>(loader(loaded, null), PageRequest.of(0, 10), 2, executor);
+
+        // when
+        assertThat(iterator.next()).isZero();
+        Thread.sleep(300);
+
+        // then
+        assertThat(loaded.get()).isEqualTo(3);
+        iterator.close();
+        Thread.sleep(300);
+        assertThat(loaded.get()).isEqualTo(3);
+    }
+
+    /**
+     * 다 읽지 않고 버린 iterator는 조회 스레드를 붙잡지 않는다.(스레드 2개인 Executor에서 다른 iterator가 계속 조회할 수 있다)
+     */
+    @Test
+    void abandonedIteratorsDoNotHoldThreads() {
+        // given
+        List<PrefetchingSliceIterator<Integer>> abandoned = new ArrayList<>();
+        for (int i = 0; i < 64; i++) {
+            PrefetchingSliceIterator<Integer> iterator = new PrefetchingSliceIterator<>(loader(new AtomicInteger(), null), PageRequest.of(0, 10), 2, executor);
+            iterator.next();
+            abandoned.add(iterator);
+        }
+
+        // when
+        List<Integer> all;
+        try (Stream<Integer> stream = PrefetchingSliceIterator.stream(
+                previous -> loader(new AtomicInteger(), null).apply(previous == null ? PageRequest.of(0, 10) : previous.nextPageable()), 2, executor)) {
+            all = stream.collect(Collectors.toList());
+        }
+
+        // then
+        assertThat(all).hasSize(TOTAL);
+        assertThat(abandoned).hasSize(64);
+    }
+
+    /**
+     * 조회 중 예외는 그 페이지를 꺼낼 때 던진다.
+     */
+    @Test
+    void failure() {
+        PrefetchingSliceIterator<Integer> iterator = new PrefetchingSliceIterator<>(loader(new AtomicInteger(), 3), PageRequest.of(0, 10), 2, executor);
+
+        for (int i = 0; i < 30; i++) {
+            assertThat(iterator.next()).isEqualTo(i);
+        }
+        assertThatThrownBy(iterator::hasNext).isInstanceOf(IllegalStateException.class).hasMessage("page 3");
+    }
+
+    /**
+     * @param failAt 이 페이지 번호를 조회하면 예외
+     */
+    private static Function<Pageable, Slice<Integer>> loader(AtomicInteger loaded, Integer failAt) {
+        return pageable -> {
+            loaded.incrementAndGet();
+            if (failAt != null && pageable.getPageNumber() == failAt) {
+                throw new IllegalStateException("page " + failAt);
+            }
+            int from = (int) pageable.getOffset();
+            List<Integer> content = IntStream.range(from, Math.min(from + pageable.getPageSize(), TOTAL))
+                    .boxed()
+                    .collect(Collectors.toList());
+            return new SliceImpl<>(content, pageable, from + pageable.getPageSize() < TOTAL);
+        };
+    }
+}
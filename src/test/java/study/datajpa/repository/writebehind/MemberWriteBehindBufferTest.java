@@ -0,0 +1,259 @@
+package study.datajpa.repository.writebehind;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.lock.OptimisticRetryTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * write-behind 버퍼의 합치기와 내구성 수준별 동작
+ *  - 트랜잭션 밖에서 실행하고 끝나면 회원을 지운다.
+ */
+@SpringBootTest
+class MemberWriteBehindBufferTest {
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    OptimisticRetryTemplate retryTemplate;
+
+    MemberWriteBehindBuffer buffer;
+
+    @AfterEach
+    void cleanup() {
+        if (buffer != null) {
+            buffer.shutdown();
+        }
+        memberRepository.deleteAllInBatch();
+    }
+
+    /**
+     * BUFFERED: 같은 회원의 변경 100번이 UPDATE 한번(version + 1)으로 합쳐진다.
+     *  - flush 전에는 DB에 반영되지 않는다.(이 사이에 프로세스가 죽으면 유실)
+     */
+    @Test
+    void coalesce() {
+        // given
+        buffer = buffer(WriteBehindDurability.BUFFERED, 100);
+        MemberEntity member = memberRepository.save(new MemberEntity("member1", 0));
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            buffer.modify(member.getId(), m -> m.addAge(1));
+        }
+
+        // then
+        assertThat(reload(member).getAge()).isZero();
+        assertThat(buffer.flush()).isEqualTo(1);
+        MemberEntity written = reload(member);
+        assertThat(written.getAge()).isEqualTo(100);
+        assertThat(written.getVersion()).isEqualTo(member.getVersion() + 1);
+        assertThat(buffer.getModifications() - buffer.getUpdates()).isEqualTo(99);
+    }
+
+    /**
+     * 정상 종료(shutdown) 시 남은 변경을 반영한다.
+     */
+    @Test
+    void flushOnShutdown() {
+        // given
+        buffer = buffer(WriteBehindDurability.BUFFERED, 100);
+        MemberEntity member = memberRepository.save(new MemberEntity("member1", 0));
+        CompletableFuture<Void> done = buffer.modify(member.getId(), m -> m.addAge(5));
+
+        // when
+        buffer.shutdown();
+
+        // then
+        assertThat(done).isCompleted();
+        assertThat(reload(member).getAge()).isEqualTo(5);
+        assertThatThrownBy(() -> buffer.modify(member.getId(), m -> m.addAge(1))).isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * GROUP_COMMIT: 반환되면 이미 커밋되어 있다.
+     */
+    @Test
+    void groupCommit() {
+        // given
+        buffer = groupCommit(Duration.ofMillis(20), Duration.ofSeconds(5));
+        MemberEntity member = memberRepository.save(new MemberEntity("member1", 0));
+
+        // when
+        buffer.modify(member.getId(), m -> m.addAge(1));
+
+        // then
+        assertThat(reload(member).getAge()).isEqualTo(1);
+    }
+
+    /**
+     * GROUP_COMMIT은 자동 flush(window)가 있어야 하고, commit-timeout 까지만 기다린다.
+     *  - 시간 안에 커밋되지 않은 변경은 버퍼에 남아 다음 flush에서 반영된다.
+     */
+    @Test
+    void groupCommitTimeout() {
+        assertThatThrownBy(() -> groupCommit(Duration.ZERO, Duration.ofSeconds(5)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // given
+        buffer = groupCommit(Duration.ofMinutes(10), Duration.ofMillis(100));
+        MemberEntity member = memberRepository.save(new MemberEntity("member1", 0));
+
+        // when
+        assertThatThrownBy(() -> buffer.modify(member.getId(), m -> m.addAge(1)))
+                .isInstanceOf(IllegalStateException.class);
+
+        // then
+        assertThat(reload(member).getAge()).isZero();
+        assertThat(buffer.flush()).isEqualTo(1);
+        assertThat(reload(member).getAge()).isEqualTo(1);
+    }
+
+    /**
+     * 변경 요청과 shutdown이 겹쳐도 받아들인 변경(future를 반환한 변경)은 모두 반영된다.
+     */
+    @Test
+    void shutdownWhileModifying() throws Exception {
+        // given
+        buffer = new MemberWriteBehindBuffer(transactionManager, memberRepository, retryTemplate,
+                WriteBehindDurability.BUFFERED, Duration.ofMillis(5), 100, Duration.ofSeconds(5), Duration.ofSeconds(5), 100);
+        MemberEntity member = memberRepository.save(new MemberEntity("member1", 0));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<CompletableFuture<Void>>>> workers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            workers.add(executor.submit(() -> {
+                List<CompletableFuture<Void>> accepted = new ArrayList<>();
+                try {
+                    while (true) {
+                        accepted.add(buffer.modify(member.getId(), m -> m.addAge(1)));
+                    }
+                } catch (IllegalStateException closed) {
+                    return accepted;
+                }
+            }));
+        }
+
+        // when
+        Thread.sleep(50);
+        buffer.shutdown();
+
+        // then
+        int accepted = 0;
+        for (Future<List<CompletableFuture<Void>>> worker : workers) {
+            for (CompletableFuture<Void> done : worker.get(10, TimeUnit.SECONDS)) {
+                assertThat(done).isCompleted();
+                accepted++;
+            }
+        }
+        executor.shutdown();
+        assertThat(accepted).isPositive();
+        assertThat(reload(member).getAge()).isEqualTo(accepted);
+    }
+
+    /**
+     * WRITE_THROUGH: 버퍼 없이 변경마다 UPDATE
+     */
+    @Test
+    void writeThrough() {
+        // given
+        buffer = buffer(WriteBehindDurability.WRITE_THROUGH, 100);
+        MemberEntity member = memberRepository.save(new MemberEntity("member1", 0));
+
+        // when
+        buffer.modify(member.getId(), m -> m.addAge(1));
+        buffer.modify(member.getId(), m -> m.addAge(1));
+
+        // then
+        MemberEntity written = reload(member);
+        assertThat(written.getAge()).isEqualTo(2);
+        assertThat(written.getVersion()).isEqualTo(member.getVersion() + 2);
+        assertThat(buffer.getPending()).isZero();
+    }
+
+    /**
+     * 버퍼가 가득 차면 flush를 요청하고 자리가 날 때를 기다린다.
+     * 없는 회원에 대한 변경은 실패로 완료된다.
+     */
+    @Test
+    void boundedAndNotFound() {
+        // given
+        buffer = buffer(WriteBehindDurability.BUFFERED, 2);
+        MemberEntity member1 = memberRepository.save(new MemberEntity("member1", 0));
+        MemberEntity member2 = memberRepository.save(new MemberEntity("member2", 0));
+        CompletableFuture<Void> missing = buffer.modify(-1L, m -> m.addAge(1));
+        buffer.modify(member1.getId(), m -> m.addAge(1));
+
+        // when
+        buffer.modify(member2.getId(), m -> m.addAge(1));
+
+        // then
+        assertThat(buffer.getPending()).isLessThanOrEqualTo(2);
+        assertThat(reload(member1).getAge()).isEqualTo(1);
+        assertThatThrownBy(missing::get).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(EmptyResultDataAccessException.class);
+    }
+
+    /**
+     * 첫 시도가 version 충돌(다른 트랜잭션이 회원 삭제)로 롤백되면 다음 시도에서 없는 회원은 실패로 완료된다.
+     *  - 롤백된 첫 시도에서 적용했던 것을 성공으로 치지 않는다.
+     */
+    @Test
+    void deletedBetweenRetries() {
+        // given
+        buffer = buffer(WriteBehindDurability.BUFFERED, 100);
+        MemberEntity member = memberRepository.save(new MemberEntity("member1", 0));
+        AtomicBoolean firstAttempt = new AtomicBoolean(true);
+        CompletableFuture<Void> done = buffer.modify(member.getId(), m -> {
+            m.addAge(1);
+            if (firstAttempt.getAndSet(false)) {
+                CompletableFuture.runAsync(() -> memberRepository.deleteById(member.getId())).join();
+            }
+        });
+
+        // when
+        buffer.flush();
+
+        // then
+        assertThat(firstAttempt).isFalse();
+        assertThatThrownBy(done::get).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(EmptyResultDataAccessException.class);
+        assertThat(memberRepository.findById(member.getId())).isEmpty();
+        assertThat(buffer.getUpdates()).isZero();
+    }
+
+    private MemberWriteBehindBuffer buffer(WriteBehindDurability durability, int maxPending) {
+        // 자동 flush 없음(window 0)
+        return new MemberWriteBehindBuffer(transactionManager, memberRepository, retryTemplate,
+                durability, Duration.ZERO, maxPending, Duration.ofSeconds(5), Duration.ofSeconds(5), 100);
+    }
+
+    private MemberWriteBehindBuffer groupCommit(Duration window, Duration commitTimeout) {
+        return new MemberWriteBehindBuffer(transactionManager, memberRepository, retryTemplate,
+                WriteBehindDurability.GROUP_COMMIT, window, 100, Duration.ofMillis(100), commitTimeout, 100);
+    }
+
+    private MemberEntity reload(MemberEntity member) {
+        return memberRepository.findById(member.getId()).orElseThrow();
+    }
+}
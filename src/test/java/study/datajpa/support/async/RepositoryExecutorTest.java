@@ -0,0 +1,84 @@
+package study.datajpa.support.async;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RepositoryExecutorTest {
+
+    // 동시 실행 1개, 자리 대기 50ms, 제한 시간 500ms
+    RepositoryExecutor executor = new RepositoryExecutor(null, true, 1, 10,
+            Duration.ofMillis(50), Duration.ofMillis(500));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void submit() throws Exception {
+        assertThat(executor.submit(() -> "member1").get()).isEqualTo("member1");
+    }
+
+    /**
+     * 요청별 제한 시간이 지나면 RepositoryTimeoutException
+     */
+    @Test
+    void timeout() {
+        CompletableFuture<String> result = executor.submit(() -> sleep(1_000), Duration.ofMillis(50));
+
+        assertThatThrownBy(result::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(RepositoryTimeoutException.class);
+    }
+
+    /**
+     * 동시 실행 한도를 넘은 호출은 bulkhead-wait 이후 BulkheadFullException
+     */
+    @Test
+    void bulkheadFull() throws Exception {
+        // given
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = executor.submit(() -> {
+            running.countDown();
+            await(release);
+            return "first";
+        });
+        running.await();
+
+        // when
+        CompletableFuture<String> second = executor.submit(() -> "second");
+
+        // then
+        assertThatThrownBy(second::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(BulkheadFullException.class);
+        release.countDown();
+        assertThat(first.get()).isEqualTo("first");
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "slept";
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package study.datajpa.support.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 메모리 H2 두개(primary, replica)로 라우팅 확인
+ *  - 각 DB의 node 테이블에 자신의 이름을 넣어두고, 어느 DB에서 조회했는지 확인한다.
+ */
+class ReplicationRoutingDataSourceTest {
+
+    HikariDataSource primary;
+    HikariDataSource replica;
+    Replica replica1;
+    JdbcTemplate jdbcTemplate;
+    TransactionTemplate readOnly;
+    TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica1");
+        replica1 = new Replica("replica1", replica);
+        ReplicationRoutingDataSource routing = new ReplicationRoutingDataSource(
+                primary, List.of(replica1), LoadBalancePolicy.ROUND_ROBIN, Duration.ofSeconds(1));
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        // when
+        String node = readOnly.execute(status -> currentNode());
+
+        // then
+        assertThat(node).isEqualTo("replica1");
+    }
+
+    @Test
+    void writeTransactionAndNoTransactionUsePrimary() {
+        // when
+        String inTransaction = readWrite.execute(status -> currentNode());
+        String withoutTransaction = currentNode();
+
+        // then
+        assertThat(inTransaction).isEqualTo("primary");
+        assertThat(withoutTransaction).isEqualTo("primary");
+    }
+
+    /**
+     * 복제 지연이 max-lag를 넘으면 replica 대신 primary에서 조회한다.
+     */
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        // given
+        replica1.updateLag(Duration.ofSeconds(10).toMillis());
+
+        // when
+        String node = readOnly.execute(status -> currentNode());
+
+        // then
+        assertThat(node).isEqualTo("primary");
+    }
+
+    /**
+     * LEAST_CONNECTIONS: 커넥션을 사용 중인 replica는 피한다.
+     */
+    @Test
+    void leastConnectionsPicksIdleReplica() throws SQLException {
+        // given
+        HikariDataSource busy = h2("busy");
+        HikariDataSource idle = h2("idle");
+        ReplicationRoutingDataSource routing = new ReplicationRoutingDataSource(primary,
+                List.of(new Replica("busy", busy), new Replica("idle", idle)),
+                LoadBalancePolicy.LEAST_CONNECTIONS, Duration.ofSeconds(1));
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        TransactionTemplate leastConnections = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        leastConnections.setReadOnly(true);
+
+        // when
+        List<String> nodes = new ArrayList<>();
+        try (Connection held = busy.getConnection()) {
+            for (int i = 0; i < 4; i++) {
+                nodes.add(leastConnections.execute(status -> jdbc.queryForObject("select name from node", String.class)));
+            }
+        } finally {
+            busy.close();
+            idle.close();
+        }
+
+        // then
+        assertThat(nodes).containsOnly("idle");
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("select name from node", String.class);
+    }
+
+    private static HikariDataSource h2(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(4);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table node (name varchar(20))");
+        jdbc.update("insert into node values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,105 @@
+package study.datajpa.support.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.count.CountMode;
+import study.datajpa.repository.specification.MemberSpec;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 사용자 정의 Repository 조회 메소드의 replica 라우팅
+ *  - primary와 replica가 같은 메모리 H2를 바라보게 하고, replica가 선택된 횟수로 확인한다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:replication-routing;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.username=sa",
+        "spring.datasource.hikari.password=",
+        "datajpa.datasource.replication.enabled=true",
+        "datajpa.datasource.replication.replicas[0].name=replica1",
+        "datajpa.datasource.replication.replicas[0].jdbc-url=jdbc:h2:mem:replication-routing;DB_CLOSE_DELAY=-1",
+        "datajpa.datasource.replication.replicas[0].username=sa",
+        "datajpa.datasource.replication.replicas[0].password=",
+})
+class ReplicationRoutingRepositoryTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    ReplicationDataSourceConfig.ReplicationDataSources replicationDataSources;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    EntityManagerFactory emf;
+
+    @Test
+    void customReadMethodsUseReplica() {
+        // given
+        memberRepository.save(new MemberEntity("member1", 10));
+        memberRepository.save(new MemberEntity("member2", 20));
+        Replica replica = replicationDataSources.getRouting().getReplicas().get(0);
+
+        // when
+        long before = replica.getRoutedCount();
+        long total = memberRepository.findDtoPage(PageRequest.of(0, 10), CountMode.EXACT).getTotalElements();
+        long afterDtoPage = replica.getRoutedCount();
+        int found = memberRepository.searchByKeyset(List.of(MemberSpec.ageGoe(10)), null,
+                PageRequest.of(0, 10, Sort.by("username"))).getContent().size();
+        long afterSearch = replica.getRoutedCount();
+
+        // then
+        assertThat(total).isGreaterThanOrEqualTo(2);
+        assertThat(found).isGreaterThanOrEqualTo(2);
+        assertThat(afterDtoPage).isGreaterThan(before);
+        assertThat(afterSearch).isGreaterThan(afterDtoPage);
+    }
+
+    /**
+     * 쓰기 트랜잭션 안에서 호출하면 그 트랜잭션에 참여하므로 primary에서 조회한다.
+     */
+    @Test
+    void readInsideWriteTransactionUsesPrimary() {
+        // given
+        Replica replica = replicationDataSources.getRouting().getReplicas().get(0);
+        long before = replica.getRoutedCount();
+
+        // when
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                memberRepository.findDtoPage(PageRequest.of(0, 10), CountMode.EXACT));
+
+        // then
+        assertThat(replica.getRoutedCount()).isEqualTo(before);
+    }
+
+    /**
+     * 읽기 전용 트랜잭션(replica)에서 읽은 엔티티는 2차 캐시에 넣지 않는다.
+     */
+    @Test
+    void replicaReadDoesNotPopulateSecondLevelCache() {
+        // given
+        Long id = memberRepository.save(new MemberEntity("member1", 10)).getId();
+        emf.getCache().evictAll();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // when
+        readOnly.executeWithoutResult(status -> memberRepository.findById(id).orElseThrow());
+        boolean cachedByReplicaRead = emf.getCache().contains(MemberEntity.class, id);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                memberRepository.findById(id).orElseThrow());
+
+        // then
+        assertThat(cachedByReplicaRead).isFalse();
+        assertThat(emf.getCache().contains(MemberEntity.class, id)).isTrue();
+    }
+}
@@ -0,0 +1,13 @@
+package study.datajpa.support.id;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:id-block;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.username=sa",
+        "spring.datasource.hikari.password=",
+        "datajpa.id.strategy=block",
+        "datajpa.id.stripes=4"
+})
+class BlockIdStrategyTest extends IdStrategyPersistenceTest {
+}
@@ -0,0 +1,115 @@
+package study.datajpa.support.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdGeneratorTest {
+
+    static final int THREADS = 16;
+    static final int IDS_PER_THREAD = 100_000;
+
+    /**
+     * 여러 스레드에서 발급한 id가 겹치지 않고, 블록(50개)마다 한번만 시퀀스를 조회한다.
+     */
+    @Test
+    void stripedBlocks() throws Exception {
+        // given
+        AtomicLong sequence = new AtomicLong(1 - 50);
+        AtomicLong fetches = new AtomicLong();
+        StripedBlockAllocator allocator = new StripedBlockAllocator(50, 8, 1);
+        LongSupplier nextSequenceValue = () -> {
+            fetches.incrementAndGet();
+            return sequence.addAndGet(50);
+        };
+
+        // when
+        long[] ids = generate(() -> allocator.next(nextSequenceValue));
+
+        // then
+        assertUnique(ids);
+        assertThat(Arrays.stream(ids).min().getAsLong()).isGreaterThanOrEqualTo(1);
+        assertThat(fetches.get()).isLessThanOrEqualTo(ids.length / 50 + allocator.getStripes() + 1);
+    }
+
+    @Test
+    void snowflake() throws Exception {
+        // given
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        long start = System.currentTimeMillis();
+
+        // when
+        long[] ids = generate(generator::next);
+
+        // then
+        assertUnique(ids);
+        assertThat(SnowflakeIdGenerator.timestamp(ids[0])).isBetween(start, System.currentTimeMillis() + 1_000);
+        assertThat((ids[0] >>> 12) & SnowflakeIdGenerator.MAX_NODE).isEqualTo(7);
+    }
+
+    /**
+     * 시계가 뒤로 가도 이전 id보다 큰 id를 발급한다.
+     */
+    @Test
+    void snowflakeClockBackwards() {
+        long[] now = {SnowflakeIdGenerator.EPOCH + 10_000};
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, () -> now[0]);
+
+        long first = generator.next();
+        now[0] -= 5_000;
+        long second = generator.next();
+
+        assertThat(second).isGreaterThan(first);
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_NODE + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * 스레드마다 IDS_PER_THREAD개 발급(스레드 안에서는 증가 순서)
+     */
+    private static long[] generate(LongSupplier next) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<long[]>> tasks = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                tasks.add(() -> {
+                    long[] ids = new long[IDS_PER_THREAD];
+                    for (int i = 0; i < IDS_PER_THREAD; i++) {
+                        ids[i] = next.getAsLong();
+                        if (i > 0 && ids[i] <= ids[i - 1]) {
+                            throw new AssertionError("not increasing: " + ids[i - 1] + " -> " + ids[i]);
+                        }
+                    }
+                    return ids;
+                });
+            }
+            List<Future<long[]>> futures = executor.invokeAll(tasks);
+            long[] all = new long[THREADS * IDS_PER_THREAD];
+            for (int t = 0; t < THREADS; t++) {
+                System.arraycopy(futures.get(t).get(), 0, all, t * IDS_PER_THREAD, IDS_PER_THREAD);
+            }
+            return all;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void assertUnique(long[] ids) {
+        long[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            assertThat(sorted[i]).as("duplicate id").isNotEqualTo(sorted[i - 1]);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package study.datajpa.support.id;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.entity.TeamEntity;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * datajpa.id.strategy별로 BlockAllocatingIdGenerator(IdGenerationConfig -> Hibernate 설정)를 통해 저장
+ *  - 여러 스레드가 각자 트랜잭션에서 팀과 회원을 저장해도 id가 겹치지 않는다.
+ *  - insert마다 DB에서 id를 받지 않으므로 JDBC batch insert가 유지된다.(prepared statement 수로 확인)
+ *  - 전략마다 별도 메모리 H2를 사용한다.(BlockIdStrategyTest, SnowflakeIdStrategyTest)
+ */
+abstract class IdStrategyPersistenceTest {
+
+    static final int THREADS = 8;
+    static final int MEMBERS_PER_THREAD = 200;
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void concurrentSaves() throws Exception {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Callable<List<Long>>> tasks = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            tasks.add(() -> tx.execute(status -> {
+                TeamEntity team = teamRepository.save(new TeamEntity("team" + thread));
+                List<Long> ids = memberRepository.saveAll(IntStream.range(0, MEMBERS_PER_THREAD)
+                                .mapToObj(i -> new MemberEntity("member" + thread + "_" + i, 10, team))
+                                .collect(Collectors.toList()))
+                        .stream().map(MemberEntity::getId).collect(Collectors.toList());
+                ids.add(team.getId());
+                return ids;
+            }));
+        }
+
+        // when
+        Set<Long> memberIds = new HashSet<>();
+        Set<Long> teamIds = new HashSet<>();
+        try {
+            for (Future<List<Long>> future : executor.invokeAll(tasks)) {
+                List<Long> ids = future.get();
+                memberIds.addAll(ids.subList(0, MEMBERS_PER_THREAD));
+                teamIds.add(ids.get(MEMBERS_PER_THREAD));
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // then
+        assertThat(memberIds).hasSize(THREADS * MEMBERS_PER_THREAD).doesNotContainNull();
+        assertThat(teamIds).hasSize(THREADS).doesNotContainNull();
+        assertThat(memberRepository.count()).isGreaterThanOrEqualTo(THREADS * MEMBERS_PER_THREAD);
+    }
+
+    /**
+     * 회원 200명 저장 = batch_size(100)마다 insert 한번 + id 블록 조회(block) 몇 번
+     *  - insert마다 id를 받으면 prepared statement가 행 수만큼 필요하다.
+     */
+    @Test
+    void batchedInserts() {
+        // given
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        statistics.clear();
+
+        // when
+        tx.executeWithoutResult(status -> memberRepository.saveAll(IntStream.range(0, MEMBERS_PER_THREAD)
+                .mapToObj(i -> new MemberEntity("batch" + i, 10))
+                .collect(Collectors.toList())));
+
+        // then
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(MEMBERS_PER_THREAD);
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(MEMBERS_PER_THREAD / 10);
+    }
+}
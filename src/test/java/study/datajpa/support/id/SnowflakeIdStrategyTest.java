@@ -0,0 +1,32 @@
+package study.datajpa.support.id;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.entity.MemberEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.jdbc-url=jdbc:h2:mem:id-snowflake;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.username=sa",
+        "spring.datasource.hikari.password=",
+        "datajpa.id.strategy=snowflake",
+        "datajpa.id.node-id=3"
+})
+class SnowflakeIdStrategyTest extends IdStrategyPersistenceTest {
+
+    /**
+     * 설정한 node-id가 id에 들어가고, 값은 2^53보다 크다.(MemberDto.id 참고)
+     */
+    @Test
+    void snowflakeLayout() {
+        // when
+        long start = System.currentTimeMillis();
+        MemberEntity member = memberRepository.save(new MemberEntity("snowflake", 10));
+
+        // then
+        assertThat(member.getId()).isGreaterThan(1L << 53);
+        assertThat(SnowflakeIdGenerator.timestamp(member.getId())).isBetween(start - 1_000, System.currentTimeMillis() + 1_000);
+        assertThat((member.getId() >>> 12) & SnowflakeIdGenerator.MAX_NODE).isEqualTo(3);
+    }
+}
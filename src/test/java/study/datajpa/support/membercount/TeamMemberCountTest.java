@@ -0,0 +1,175 @@
+package study.datajpa.support.membercount;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.entity.TeamEntity;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.repository.projection.TeamMemberCount;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TeamEntity.memberCount 유지(커밋 시 반영되므로 트랜잭션 밖에서 실행하고 끝나면 지운다)
+ */
+@SpringBootTest
+class TeamMemberCountTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    TeamRepository teamRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanup() {
+        memberRepository.deleteAllInBatch();
+        teamRepository.deleteAllInBatch();
+    }
+
+    /**
+     * 저장, 팀 변경, 삭제
+     */
+    @Test
+    void saveChangeTeamDelete() {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        TeamEntity teamA = teamRepository.save(new TeamEntity("teamA"));
+        TeamEntity teamB = teamRepository.save(new TeamEntity("teamB"));
+        MemberEntity member1 = memberRepository.save(new MemberEntity("member1", 10, teamA));
+        MemberEntity member2 = memberRepository.save(new MemberEntity("member2", 10, teamA));
+
+        // when
+        tx.executeWithoutResult(status -> memberRepository.findById(member1.getId()).orElseThrow()
+                .changeTeam(teamRepository.getReferenceById(teamB.getId())));
+        memberRepository.deleteById(member2.getId());
+
+        // then
+        Map<Long, Long> counts = counts(List.of(teamA.getId(), teamB.getId()));
+        assertThat(counts).containsEntry(teamA.getId(), 0L).containsEntry(teamB.getId(), 1L);
+        assertThat(teamRepository.findById(teamB.getId()).orElseThrow().getMemberCount()).isEqualTo(1);
+    }
+
+    /**
+     * 여러 스레드가 동시에 회원의 팀을 바꿔도 회원 수가 실제 회원 수와 같다.
+     *  - 같은 회원을 동시에 바꾸면 한쪽은 version 충돌로 롤백되고 증감도 버려진다.
+     */
+    @Test
+    void concurrentChangeTeam() throws Exception {
+        // given
+        List<Long> teamIds = new ArrayList<>();
+        List<Long> memberIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            TeamEntity team = teamRepository.save(new TeamEntity("team" + i));
+            teamIds.add(team.getId());
+            for (int j = 0; j < 10; j++) {
+                memberIds.add(memberRepository.save(new MemberEntity("member" + i + "_" + j, 10, team)).getId());
+            }
+        }
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 50; i++) {
+                    Long memberId = memberIds.get(ThreadLocalRandom.current().nextInt(memberIds.size()));
+                    Long teamId = teamIds.get(ThreadLocalRandom.current().nextInt(teamIds.size()));
+                    try {
+                        tx.executeWithoutResult(status -> memberRepository.findById(memberId).orElseThrow()
+                                .changeTeam(teamRepository.getReferenceById(teamId)));
+                    } catch (OptimisticLockingFailureException e) {
+                        // 롤백되어 증감도 버려진다.
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // then
+        Map<Long, Long> actual = memberRepository.findAll().stream()
+                .collect(Collectors.groupingBy(m -> m.getTeam().getId(), Collectors.counting()));
+        Map<Long, Long> counts = counts(teamIds);
+        for (Long teamId : teamIds) {
+            assertThat(counts.get(teamId)).as("team " + teamId).isEqualTo(actual.getOrDefault(teamId, 0L));
+        }
+        assertThat(counts.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(memberIds.size());
+    }
+
+    /**
+     * *InBatch 삭제(JPQL bulk delete)도 팀 회원 수를 보정한다.(팀 없는 회원 포함)
+     */
+    @Test
+    void deleteInBatch() {
+        // given
+        TeamEntity teamA = teamRepository.save(new TeamEntity("teamA"));
+        TeamEntity teamB = teamRepository.save(new TeamEntity("teamB"));
+        memberRepository.save(new MemberEntity("member1", 10, teamA));
+        memberRepository.save(new MemberEntity("member2", 10, teamA));
+        MemberEntity member3 = memberRepository.save(new MemberEntity("member3", 10, teamB));
+        memberRepository.save(new MemberEntity("member4", 10));
+        List<Long> teamIds = List.of(teamA.getId(), teamB.getId());
+
+        // when
+        memberRepository.deleteAllInBatch(memberRepository.findByUsername("member1"));
+        memberRepository.deleteAllByIdInBatch(List.of(member3.getId()));
+
+        // then
+        assertThat(counts(teamIds)).containsEntry(teamA.getId(), 1L).containsEntry(teamB.getId(), 0L);
+        assertThat(teamRepository.findById(teamA.getId()).orElseThrow().getMemberCount()).isEqualTo(1);
+
+        // when
+        memberRepository.deleteAllInBatch();
+
+        // then
+        assertThat(memberRepository.count()).isZero();
+        assertThat(counts(teamIds)).containsEntry(teamA.getId(), 0L).containsEntry(teamB.getId(), 0L);
+    }
+
+    /**
+     * 이벤트 없이 지운 뒤(JDBC delete) 다시 세기
+     */
+    @Test
+    void recountMembers() {
+        // given
+        TeamEntity team = teamRepository.save(new TeamEntity("teamA"));
+        memberRepository.save(new MemberEntity("member1", 10, team));
+        memberRepository.save(new MemberEntity("member2", 10, team));
+        jdbcTemplate.update("delete from member where username = ?", "member1");
+
+        // when
+        teamRepository.recountMembers();
+
+        // then
+        assertThat(counts(List.of(team.getId()))).containsEntry(team.getId(), 1L);
+    }
+
+    private Map<Long, Long> counts(List<Long> teamIds) {
+        return teamRepository.findMemberCountsByIdIn(teamIds).stream()
+                .collect(Collectors.toMap(TeamMemberCount::getId, TeamMemberCount::getMemberCount, (a, b) -> a));
+    }
+}
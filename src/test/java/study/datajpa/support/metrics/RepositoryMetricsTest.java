@@ -0,0 +1,74 @@
+package study.datajpa.support.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.MemberJpaRepository;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@Transactional
+class RepositoryMetricsTest {
+
+    @Autowired
+    RepositoryMetrics repositoryMetrics;
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    MemberJpaRepository memberJpaRepository;
+    @PersistenceContext
+    EntityManager em;
+
+    /**
+     * Spring Data Repository(파생 쿼리, 사용자 정의 구현)와 순수 JPA Repository 모두 기록된다.
+     */
+    @Test
+    void recordsRepositoryMethods() {
+        // given
+        memberJpaRepository.save(new MemberEntity("member1", 10));
+        memberJpaRepository.save(new MemberEntity("member2", 20));
+        em.flush();
+        RepositoryMethodMetrics findByUsername = repositoryMetrics.method("MemberRepository", "findByUsername");
+        RepositoryMethodMetrics selectCustomMember = repositoryMetrics.method("MemberRepository", "selectCustomMember");
+        long calls = findByUsername.getLatency().getCount();
+        long rows = selectCustomMember.getRows().sum();
+        long statements = selectCustomMember.getStatements().sum();
+
+        // when
+        memberRepository.findByUsername("member1");
+        memberRepository.selectCustomMember();
+
+        // then
+        assertThat(findByUsername.getLatency().getCount()).isEqualTo(calls + 1);
+        assertThat(selectCustomMember.getRows().sum() - rows).isEqualTo(1);
+        assertThat(selectCustomMember.getStatements().sum() - statements).isEqualTo(1);
+        assertThat(selectCustomMember.getLastPersistenceContextSize()).isGreaterThanOrEqualTo(2);
+        assertThat(repositoryMetrics.method("MemberJpaRepository", "save").getLatency().getCount()).isGreaterThanOrEqualTo(2);
+        assertThat(PrometheusRepositoryMetrics.format(repositoryMetrics.snapshot()))
+                .contains("repository_method_seconds_count{repository=\"MemberRepository\",method=\"findByUsername\"}")
+                .contains("# TYPE repository_method_seconds_max gauge\nrepository_method_seconds_max{");
+    }
+
+    /**
+     * 백분위 값은 구간 중간값이라 약 3% 오차 이내
+     */
+    @Test
+    void histogramPercentile() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1_000; i++) {
+            histogram.record(i * 1_000);
+        }
+
+        assertThat(histogram.getCount()).isEqualTo(1_000);
+        assertThat(histogram.percentile(0.5)).isBetween(485_000L, 515_000L);
+        assertThat(histogram.percentile(0.99)).isBetween(960_000L, 1_000_000L);
+        assertThat(histogram.getMaxNanos()).isEqualTo(1_000_000L);
+    }
+}
@@ -0,0 +1,123 @@
+package study.datajpa.support.persistence;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.MemberRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "datajpa.persistence-context.governor.max-entities=100",
+        "datajpa.persistence-context.governor.check-interval=10",
+})
+@Transactional
+class PersistenceContextGovernorTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+    @Autowired
+    PersistenceContextGovernor governor;
+    @Autowired
+    EntityManagerFactory emf;
+    @PersistenceContext
+    EntityManager em;
+
+    /**
+     * 한도를 넘긴 호출마다 경고하지 않고 한도의 2배가 될 때 다시 경고한다.
+     */
+    @Test
+    void warn() {
+        // given
+        PersistenceContextGovernor governor = new PersistenceContextGovernor(emf, GovernorMode.WARN, 100, Long.MAX_VALUE, 10);
+        saveMembers(150);
+
+        // when
+        governor.afterCall("MemberRepository.findAll");
+        governor.afterCall("MemberRepository.findAll");
+
+        // then
+        assertThat(governor.getWarnings().sum()).isEqualTo(1);
+        assertThat(managedEntities()).isEqualTo(150);
+    }
+
+    /**
+     * 한도를 넘긴 호출이 반환한 엔티티는 수정할 수 있고, 다음 호출 전에 flush/clear 된다.
+     */
+    @Test
+    void flushClear() {
+        // given
+        PersistenceContextGovernor governor = new PersistenceContextGovernor(emf, GovernorMode.FLUSH_CLEAR, 100, Long.MAX_VALUE, 10);
+        saveMembers(150);
+        List<MemberEntity> members = memberRepository.findAll();
+        governor.afterCall("MemberRepository.findAll");
+        members.forEach(m -> m.addAge(1));
+
+        // when
+        governor.beforeCall("MemberRepository.findAll");
+
+        // then
+        assertThat(governor.getFlushClears().sum()).isEqualTo(1);
+        assertThat(managedEntities()).isZero();
+        assertThat(memberRepository.findAll()).allSatisfy(m -> assertThat(m.getAge()).isEqualTo(11));
+    }
+
+    /**
+     * 스냅샷 크기 한도를 넘으면 이후 조회한 엔티티는 스냅샷 없이 관리한다.
+     */
+    @Test
+    void readOnly() {
+        // given
+        PersistenceContextGovernor governor = new PersistenceContextGovernor(emf, GovernorMode.READ_ONLY, Long.MAX_VALUE, 1024, 10);
+        saveMembers(150);
+
+        // when
+        governor.afterCall("MemberRepository.findAll");
+        em.clear();
+        List<MemberEntity> members = memberRepository.findAll();
+
+        // then
+        assertThat(governor.getReadOnlySwitches().sum()).isEqualTo(1);
+        assertThat(em.unwrap(Session.class).isReadOnly(members.get(0))).isTrue();
+    }
+
+    /**
+     * Repository 프록시에 붙은 interceptor가 호출 이름(Repository.메소드)으로 경고한다.
+     */
+    @Test
+    @ExtendWith(OutputCaptureExtension.class)
+    void repositoryProxy(CapturedOutput output) {
+        // given
+        saveMembers(150);
+        long warnings = governor.getWarnings().sum();
+
+        // when
+        memberRepository.findAll();
+
+        // then
+        assertThat(governor.getWarnings().sum()).isEqualTo(warnings + 1);
+        assertThat(output).contains("after MemberRepository.findAll,");
+    }
+
+    private void saveMembers(int count) {
+        for (int i = 0; i < count; i++) {
+            em.persist(new MemberEntity("member" + i, 10));
+        }
+        em.flush();
+    }
+
+    private long managedEntities() {
+        return em.unwrap(Session.class).getStatistics().getEntityCount();
+    }
+}
@@ -0,0 +1,85 @@
+package study.datajpa.support.sql;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import study.datajpa.entity.MemberEntity;
+import study.datajpa.repository.MemberRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * MVC 요청을 거쳐 N+1(같은 SQL 반복)을 감지하고 경로 패턴별로 센다.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(SqlBudgetInterceptorTest.NPlusOneController.class)
+class SqlBudgetInterceptorTest {
+
+    private static final String PATTERN = "/test/sql-budget/{teamId}";
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    SqlBudgetInterceptor interceptor;
+    @Autowired
+    MemberRepository memberRepository;
+
+    @AfterEach
+    void cleanup() {
+        memberRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void nPlusOne() throws Exception {
+        // given
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new MemberEntity("member" + i, 10));
+        }
+
+        // when
+        mockMvc.perform(get("/test/sql-budget/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/test/sql-budget/2")).andExpect(status().isOk());
+
+        // then
+        assertThat(interceptor.getViolations()).containsKey("GET " + PATTERN)
+                .allSatisfy((key, route) -> assertThat(key).doesNotContain("/test/sql-budget/1", "/test/sql-budget/2"));
+        assertThat(interceptor.getViolations().get("GET " + PATTERN).getCount().sum()).isEqualTo(2);
+        mockMvc.perform(get("/v1/metrics/repository"))
+                .andExpect(content().string(containsString(
+                        "sql_budget_violations_total{method=\"GET\",pattern=\"" + PATTERN + "\"} 2.0")));
+    }
+
+    /**
+     * 회원마다 같은 조회를 반복하는 N+1 핸들러
+     */
+    @RestController
+    static class NPlusOneController {
+
+        private final MemberRepository memberRepository;
+
+        NPlusOneController(MemberRepository memberRepository) {
+            this.memberRepository = memberRepository;
+        }
+
+        @GetMapping(PATTERN)
+        public int members(@PathVariable Long teamId) {
+            int found = 0;
+            for (int i = 0; i < 10; i++) {
+                found += memberRepository.findByUsernameAndAgeGreaterThan("member" + i, 0).size();
+            }
+            return found;
+        }
+    }
+}